@@ -3,6 +3,7 @@ package com.example.slideup;
 import android.content.Intent;
 import android.os.Bundle;
 import android.support.design.widget.FloatingActionButton;
+import android.support.v4.content.ContextCompat;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.Toolbar;
 import android.view.Gravity;
@@ -43,12 +44,8 @@ public class SlideDownViewActivity extends AppCompatActivity {
         fab = (FloatingActionButton) findViewById(R.id.fab);
 
         slideUp = new SlideUpBuilder(sliderView)
-                .withListeners(new SlideUp.Listener.Events() {
-                    @Override
-                    public void onSlide(float percent) {
-                        dim.setAlpha(1 - (percent / 100));
-                    }
-    
+                .withScrim(dim, ContextCompat.getColor(this, R.color.dimBg))
+                .withListeners(new SlideUp.Listener.Visibility() {
                     @Override
                     public void onVisibilityChanged(int visibility) {
                         if (visibility == View.GONE){
@@ -0,0 +1,78 @@
+package com.mancj.slideup.benchmarks;
+
+import com.mancj.slideup.core.ListenerFanout;
+import com.mancj.slideup.core.SlideEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <p>Fan-out of slide percents to listeners through the snapshot dispatch of {@code SlideUp.notifyPercentChanged}.
+ * Listeners are of two classes, so the call sites are not monomorphic</p>
+ */
+@State(Scope.Thread)
+public class DispatchBenchmark {
+    private static final float SIZE = 1920;
+    
+    @Param({"1", "10", "100"})
+    int listeners;
+    
+    private Slide[] mSlideListeners;
+    private SlideDelivery mDelivery;
+    private float mValue;
+    
+    interface Slide {
+        void onSlide(float percent);
+    }
+    
+    private static class ConsumingSlide implements Slide {
+        private final Blackhole mBlackhole;
+        
+        ConsumingSlide(Blackhole blackhole) {
+            mBlackhole = blackhole;
+        }
+        
+        @Override
+        public void onSlide(float percent) {
+            mBlackhole.consume(percent);
+        }
+    }
+    
+    private static class CountingSlide implements Slide {
+        int mCount;
+        
+        @Override
+        public void onSlide(float percent) {
+            mCount++;
+        }
+    }
+    
+    private static class SlideDelivery implements ListenerFanout.Delivery<Slide> {
+        float mPercent;
+        
+        @Override
+        public void deliver(Slide listener, int index) {
+            listener.onSlide(mPercent);
+        }
+    }
+    
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        mSlideListeners = new Slide[listeners];
+        for (int i = 0; i < listeners; i++) {
+            mSlideListeners[i] = i % 2 == 0 ? new ConsumingSlide(blackhole) : new CountingSlide();
+        }
+        mDelivery = new SlideDelivery();
+    }
+    
+    @Benchmark
+    public void notifyPercentChanged() {
+        mValue = mValue >= SIZE ? 0 : mValue + 7;
+        mDelivery.mPercent = SlideEngine.clampPercent(SlideEngine.percentOf(mValue, SIZE));
+        ListenerFanout.deliver(mSlideListeners, mDelivery);
+    }
+}
@@ -0,0 +1,93 @@
+package com.mancj.slideup.benchmarks;
+
+import com.mancj.slideup.core.DragGesture;
+import com.mancj.slideup.core.PointerResampler;
+import com.mancj.slideup.core.SlideEngine;
+import com.mancj.slideup.core.SnapEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * <p>Cost of the platform independent part of consuming a single move or up event of a drag,
+ * for each start gravity: the drag gesture and the engine calls the touch consumers make.
+ * Reading the {@code MotionEvent} and moving the view are not included</p>
+ */
+@State(Scope.Thread)
+public class DragBenchmark {
+    private static final float SIZE = 1920;
+    private static final float TOP_OFFSET = 48;
+    private static final int SAMPLES = 64;
+    private static final long SAMPLE_INTERVAL = 8;
+    
+    @Param({"TOP", "BOTTOM", "START", "END"})
+    String gravity;
+    
+    @Param({"false", "true"})
+    boolean resampling;
+    
+    @Param({"0", "2"})
+    int anchors;
+    
+    private SlideEngine mSlideEngine;
+    private DragGesture mDragGesture;
+    private PointerResampler mPointerResampler;
+    private boolean mReversed;
+    private float[] mPointer;
+    private int mIndex;
+    private long mTime;
+    
+    private float mTranslation;
+    private float mPercent;
+    
+    @Setup
+    public void setUp() {
+        float[] fractions = anchors == 0 ? new float[0] : new float[]{0.5f, 0.25f};
+        mSlideEngine = new SlideEngine(new SnapEngine(fractions, 0));
+        // slider from the top moves past its top offset to leave the parent
+        mSlideEngine.setSize(SIZE, gravity.equals("TOP") ? SIZE + TOP_OFFSET : SIZE);
+        mSlideEngine.setMinFlingVelocity(150);
+        mDragGesture = new DragGesture(mSlideEngine);
+        mPointerResampler = new PointerResampler();
+        // TOP and START sliders are hidden at negative translation
+        mReversed = gravity.equals("TOP") || gravity.equals("START");
+        // finger goes to the hidden state and back, overshooting both ends
+        mPointer = new float[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            float phase = (float) i / SAMPLES;
+            float distance = (phase < 0.5f ? phase : 1 - phase) * 2.4f * SIZE - 0.2f * SIZE;
+            mPointer[i] = mReversed ? -distance : distance;
+        }
+        mDragGesture.begin(0, 0, mReversed);
+    }
+    
+    @Benchmark
+    public float consumeMove() {
+        float pointer = mPointer[mIndex];
+        mIndex = (mIndex + 1) % SAMPLES;
+        mTime += SAMPLE_INTERVAL;
+        if (resampling) {
+            mPointerResampler.addSample(mTime, pointer);
+            pointer = mPointerResampler.resample(mTime + SAMPLE_INTERVAL / 2, SAMPLE_INTERVAL);
+        }
+        if (mDragGesture.move(pointer)) {
+            mTranslation = mDragGesture.getTranslation();
+            mPercent = mDragGesture.getPercent();
+        }
+        return mTranslation + mPercent;
+    }
+    
+    @Benchmark
+    public int consumeUp() {
+        float translation = mDragGesture.move(mPointer[mIndex]) ? mDragGesture.getTranslation() : 0;
+        mIndex = (mIndex + 1) % SAMPLES;
+        float velocity = mDragGesture.toValue((mIndex & 1) == 0 ? 2400 : 40);
+        if (!mDragGesture.isMoved(translation)) return 0;
+        float from = mDragGesture.toValue(translation);
+        float to = mSlideEngine.findSettleTarget(from, velocity);
+        return mSlideEngine.computeSettleDuration(from, to, velocity, 300);
+    }
+}
@@ -0,0 +1,61 @@
+package com.mancj.slideup.benchmarks;
+
+import com.mancj.slideup.core.SlideEngine;
+import com.mancj.slideup.core.Spring;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * <p>Cost of a single frame of a settle animation, for the spring and the tween.
+ * The tween uses the curve of {@code DecelerateInterpolator}, the default interpolator of the builder</p>
+ */
+@State(Scope.Thread)
+public class FrameBenchmark {
+    private static final float SIZE = 1920;
+    private static final double FRAME_SECONDS = 1 / 60d;
+    private static final long FRAME_NANOS = 16666667;
+    private static final long DURATION = 300;
+    
+    private Spring mSpring;
+    private long mElapsedNanos;
+    private float mFrom;
+    private float mTo;
+    
+    @Setup
+    public void setUp() {
+        mSpring = new Spring(Spring.STIFFNESS_MEDIUM, Spring.DAMPING_RATIO_NO_BOUNCY);
+        mSpring.set(0, 0, SIZE);
+        mTo = SIZE;
+    }
+    
+    @Benchmark
+    public float springFrame() {
+        if (mSpring.update(FRAME_SECONDS)) {
+            mSpring.set(mSpring.getTarget(), 0, SIZE - mSpring.getTarget());
+        }
+        return SlideEngine.percentOf(mSpring.getValue(), SIZE);
+    }
+    
+    @Benchmark
+    public float tweenFrame() {
+        mElapsedNanos += FRAME_NANOS;
+        float fraction = SlideEngine.animationFraction(mElapsedNanos, DURATION);
+        float value = mFrom + (mTo - mFrom) * decelerate(fraction);
+        if (fraction == 1) {
+            mElapsedNanos = 0;
+            mFrom = mTo;
+            mTo = SIZE - mTo;
+        }
+        return SlideEngine.percentOf(value, SIZE);
+    }
+    
+    /**
+     * <p>Same as {@code DecelerateInterpolator} with the default factor</p>
+     */
+    private static float decelerate(float fraction) {
+        return 1 - (1 - fraction) * (1 - fraction);
+    }
+}
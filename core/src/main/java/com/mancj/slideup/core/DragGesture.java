@@ -0,0 +1,68 @@
+package com.mancj.slideup.core;
+
+/**
+ * <p>Follows the pointer of a drag along the slide axis. Translations are those of the slider view,
+ * negative ones hide the slider from the top or the start, so they are mirrored to animation values</p>
+ */
+public final class DragGesture {
+    private final SlideEngine mSlideEngine;
+    private float mSign = 1;
+    private float mStartPointer;
+    private float mStartTranslation;
+    private float mTranslation;
+    private float mPercent;
+    
+    public DragGesture(SlideEngine slideEngine) {
+        mSlideEngine = slideEngine;
+    }
+    
+    /**
+     * @param pointer     position of the pointer along the slide axis
+     * @param translation translation of the slider along the slide axis
+     * @param reversed    true if the slider is hidden at negative translation, from the top or the start
+     */
+    public void begin(float pointer, float translation, boolean reversed) {
+        mSign = reversed ? -1 : 1;
+        mStartPointer = pointer;
+        mStartTranslation = translation;
+    }
+    
+    /**
+     * <p>Moves the slider after the pointer, limited by the shown and the collapsed states</p>
+     *
+     * @return true if the slider is off the shown state, {@link #getTranslation()} and {@link #getPercent()}
+     * are updated then
+     */
+    public boolean move(float pointer) {
+        float value = mSlideEngine.limitDrag(mSign * (mStartTranslation + (pointer - mStartPointer)));
+        if (value <= 0) return false;
+        mTranslation = mSign * value;
+        mPercent = mSlideEngine.getPercent(value);
+        return true;
+    }
+    
+    public float getTranslation() {
+        return mTranslation;
+    }
+    
+    /**
+     * @return percents of complete slide at the latest move (100 = HIDDEN, 0 = SHOWED), not clamped
+     */
+    public float getPercent() {
+        return mPercent;
+    }
+    
+    /**
+     * @return true if the slider is not at the translation the gesture began at
+     */
+    public boolean isMoved(float translation) {
+        return translation != mStartTranslation;
+    }
+    
+    /**
+     * <p>Mirrors a translation or a velocity along the slide axis to animation values</p>
+     */
+    public float toValue(float translation) {
+        return mSign * translation;
+    }
+}
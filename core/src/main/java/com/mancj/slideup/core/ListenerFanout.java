@@ -0,0 +1,25 @@
+package com.mancj.slideup.core;
+
+/**
+ * <p>Delivers an event to a snapshot of listeners. Snapshots are never modified after creation,
+ * so listeners may (un)register themselves from callbacks, and nothing is allocated per event</p>
+ */
+public final class ListenerFanout {
+    
+    public interface Delivery<L> {
+        
+        /**
+         * @param index position of the listener in the snapshot
+         */
+        void deliver(L listener, int index);
+    }
+    
+    private ListenerFanout() {
+    }
+    
+    public static <L> void deliver(L[] listeners, Delivery<? super L> delivery) {
+        for (int i = 0; i < listeners.length; i++) {
+            delivery.deliver(listeners[i], i);
+        }
+    }
+}
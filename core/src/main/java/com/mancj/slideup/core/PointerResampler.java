@@ -0,0 +1,84 @@
+package com.mancj.slideup.core;
+
+/**
+ * <p>Keeps the latest pointer samples along the slide axis and estimates the pointer position
+ * at an arbitrary time: interpolating between samples, or extrapolating a bit ahead of the latest one</p>
+ */
+public final class PointerResampler {
+    private static final int HISTORY_SIZE = 4;
+    /**
+     * Samples which are closer in time give a noisy slope
+     */
+    private static final long MIN_SLOPE_INTERVAL = 2;
+    /**
+     * Finger is considered paused if the latest sample is older than this
+     */
+    private static final long MAX_SAMPLE_AGE = 20;
+    
+    private final long[] mTimes = new long[HISTORY_SIZE];
+    private final float[] mPositions = new float[HISTORY_SIZE];
+    private int mNewest = -1;
+    private int mCount;
+    
+    public void reset() {
+        mNewest = -1;
+        mCount = 0;
+    }
+    
+    public void addSample(long time, float position) {
+        if (mCount > 0 && time <= mTimes[mNewest]) {
+            // same timestamp as the previous sample, keep the latest position only
+            mPositions[mNewest] = position;
+            return;
+        }
+        mNewest = (mNewest + 1) % HISTORY_SIZE;
+        mTimes[mNewest] = time;
+        mPositions[mNewest] = position;
+        if (mCount < HISTORY_SIZE) {
+            mCount++;
+        }
+    }
+    
+    /**
+     * @param time             time to estimate the position at, in the same time base as the samples
+     * @param maxExtrapolation how far ahead of the latest sample the position may be extrapolated
+     */
+    public float resample(long time, long maxExtrapolation) {
+        float newestPosition = mPositions[mNewest];
+        long newestTime = mTimes[mNewest];
+        if (mCount < 2) {
+            return newestPosition;
+        }
+        if (time >= newestTime) {
+            long ahead = Math.min(time - newestTime, maxExtrapolation);
+            if (ahead == 0 || time - newestTime > MAX_SAMPLE_AGE + maxExtrapolation) {
+                return newestPosition;
+            }
+            for (int i = 1; i < mCount; i++) {
+                int index = indexOf(i);
+                long interval = newestTime - mTimes[index];
+                if (interval >= MIN_SLOPE_INTERVAL) {
+                    float slope = (newestPosition - mPositions[index]) / interval;
+                    return newestPosition + slope * ahead;
+                }
+            }
+            return newestPosition;
+        }
+        for (int i = 1; i < mCount; i++) {
+            int older = indexOf(i);
+            if (mTimes[older] <= time) {
+                int newer = indexOf(i - 1);
+                float fraction = (float) (time - mTimes[older]) / (mTimes[newer] - mTimes[older]);
+                return mPositions[older] + (mPositions[newer] - mPositions[older]) * fraction;
+            }
+        }
+        return mPositions[indexOf(mCount - 1)];
+    }
+    
+    /**
+     * @param age 0 for the newest sample, 1 for the previous one, etc.
+     */
+    private int indexOf(int age) {
+        return (mNewest - age + HISTORY_SIZE) % HISTORY_SIZE;
+    }
+}
@@ -0,0 +1,141 @@
+package com.mancj.slideup.core;
+
+/**
+ * <p>Platform independent decisions of a slider: drag limits, percents and settle targets.
+ * All values are animation values along the slide axis, 0 is the shown state
+ * and positive values are directed to the hidden state</p>
+ */
+public final class SlideEngine {
+    /**
+     * Shortest settle animation, in ms, about 3 frames
+     */
+    public static final int MIN_SETTLE_DURATION = 50;
+    
+    private final SnapEngine mSnapEngine;
+    private float mSize;
+    private float mHiddenValue;
+    private float mMinFlingVelocity;
+    
+    public SlideEngine(SnapEngine snapEngine) {
+        mSnapEngine = snapEngine;
+    }
+    
+    public SnapEngine getSnapEngine() {
+        return mSnapEngine;
+    }
+    
+    /**
+     * @param size size of the slider along the slide axis
+     */
+    public void setSize(float size) {
+        setSize(size, size);
+    }
+    
+    /**
+     * @param size        size of the slider along the slide axis
+     * @param hiddenValue animation value of the hidden state, larger than the size if the slider
+     *                    has to move past its own size to leave the parent
+     */
+    public void setSize(float size, float hiddenValue) {
+        mSize = size;
+        mHiddenValue = hiddenValue;
+        mSnapEngine.setSize(size, hiddenValue);
+    }
+    
+    public float getSize() {
+        return mSize;
+    }
+    
+    public float getHiddenValue() {
+        return mHiddenValue;
+    }
+    
+    /**
+     * @param velocity smallest release velocity <b>(in px/s)</b> treated as a fling
+     */
+    public void setMinFlingVelocity(float velocity) {
+        mMinFlingVelocity = velocity;
+    }
+    
+    /**
+     * @return percents of complete slide (100 = HIDDEN, 0 = SHOWED), not clamped
+     */
+    public static float percentOf(float value, float size) {
+        return value * 100 / size;
+    }
+    
+    public static float clampPercent(float percent) {
+        percent = percent > 100 ? 100 : percent;
+        return percent < 0 ? 0 : percent;
+    }
+    
+    /**
+     * @return percents of complete slide for the current size (100 = HIDDEN, 0 = SHOWED), not clamped
+     */
+    public float getPercent(float value) {
+        return percentOf(value, mSize);
+    }
+    
+    /**
+     * @return the largest animation value the slider may be dragged to, the peek or the hidden state
+     */
+    public float getCollapsedValue() {
+        return mSnapEngine.getCollapsedValue();
+    }
+    
+    /**
+     * @return the value limited by the shown and the collapsed states
+     */
+    public float limitDrag(float value) {
+        return Math.max(0, Math.min(value, getCollapsedValue()));
+    }
+    
+    public boolean isFling(float velocity) {
+        return Math.abs(velocity) >= mMinFlingVelocity;
+    }
+    
+    /**
+     * @param from     current animation value
+     * @param velocity release velocity in px/s, positive values are directed to the hidden state
+     * @return animation value to settle to
+     */
+    public float findSettleTarget(float from, float velocity) {
+        boolean fling = isFling(velocity);
+        if (mSnapEngine.isEnabled()) {
+            return mSnapEngine.findTarget(from, velocity, fling);
+        } else if (fling) {
+            return velocity > 0 ? mHiddenValue : 0;
+        } else {
+            return from > mSize / 5 && velocity >= 0 ? mHiddenValue : 0;
+        }
+    }
+    
+    /**
+     * @param maxDuration duration <b>(in ms)</b> of a settle over the whole size
+     * @return duration <b>(in ms)</b> of the settle from the release velocity and the remaining distance
+     */
+    public int computeSettleDuration(float from, float to, float velocity, int maxDuration) {
+        float size = mSize;
+        float distance = Math.abs(to - from);
+        int duration;
+        if (isFling(velocity)) {
+            // decelerating interpolators start at about twice of the average speed,
+            // so the animation picks up the finger velocity
+            duration = (int) (2 * distance * 1000 / Math.abs(velocity));
+        } else {
+            duration = size > 0 ? (int) (maxDuration * distance / size) : maxDuration;
+        }
+        return Math.min(Math.max(duration, MIN_SETTLE_DURATION), maxDuration);
+    }
+    
+    /**
+     * <p>Fraction of an interpolated animation at the given time</p>
+     *
+     * @return fraction between 0 and 1
+     */
+    public static float animationFraction(long elapsedNanos, long durationMillis) {
+        if (durationMillis <= 0) return 1;
+        float fraction = elapsedNanos / 1e6f / durationMillis;
+        return fraction >= 1 ? 1 : fraction;
+    }
+}
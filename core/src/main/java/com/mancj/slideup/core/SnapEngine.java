@@ -0,0 +1,114 @@
+package com.mancj.slideup.core;
+
+import java.util.Arrays;
+
+/**
+ * <p>Resting positions of the slider and the choice between them when the slider is released.
+ * Anchors are animation values sorted ascending: the first one is the fully shown state,
+ * the last one is the collapsed state (peek or hidden)</p>
+ */
+public final class SnapEngine {
+    /**
+     * Time <b>(in s)</b> the release velocity is projected over for slow releases
+     */
+    private static final float VELOCITY_PROJECTION = 0.1f;
+    private static final float TOLERANCE = 0.5f;
+    
+    private final float[] mVisibleFractions;
+    private final float mPeekHeight;
+    private float[] mAnchors = {0};
+    
+    public SnapEngine(float[] visibleFractions, float peekHeight) {
+        mVisibleFractions = visibleFractions;
+        mPeekHeight = peekHeight;
+    }
+    
+    /**
+     * @return true if anchors besides shown and hidden states were configured
+     */
+    public boolean isEnabled() {
+        return mVisibleFractions.length > 0 || mPeekHeight > 0;
+    }
+    
+    public boolean hasPeek() {
+        return mPeekHeight > 0;
+    }
+    
+    /**
+     * @param size        size of the slider along the slide axis
+     * @param hiddenValue animation value of the hidden state
+     */
+    public void setSize(float size, float hiddenValue) {
+        float[] anchors = new float[mVisibleFractions.length + 2];
+        int count = 0;
+        anchors[count++] = 0;
+        for (float fraction : mVisibleFractions) {
+            anchors[count++] = size * (1 - fraction);
+        }
+        anchors[count++] = hasPeek() ? Math.max(0, size - mPeekHeight) : hiddenValue;
+        Arrays.sort(anchors, 0, count);
+        int unique = 1;
+        for (int i = 1; i < count; i++) {
+            if (anchors[i] - anchors[unique - 1] > TOLERANCE) {
+                anchors[unique++] = anchors[i];
+            }
+        }
+        mAnchors = Arrays.copyOf(anchors, unique);
+    }
+    
+    public int getAnchorCount() {
+        return mAnchors.length;
+    }
+    
+    public float getAnchor(int index) {
+        return mAnchors[index];
+    }
+    
+    public float getCollapsedValue() {
+        return mAnchors[mAnchors.length - 1];
+    }
+    
+    /**
+     * @return index of the anchor at the value, or -1 if the value is between anchors
+     */
+    public int indexOf(float value) {
+        for (int i = 0; i < mAnchors.length; i++) {
+            if (Math.abs(mAnchors[i] - value) <= TOLERANCE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * @param value    current animation value
+     * @param velocity release velocity in value units per second
+     * @param fling    true if the velocity is above the fling threshold
+     * @return animation value of the anchor to settle to
+     */
+    public float findTarget(float value, float velocity, boolean fling) {
+        float[] anchors = mAnchors;
+        if (fling) {
+            // next anchor in direction of the fling
+            if (velocity > 0) {
+                for (float anchor : anchors) {
+                    if (anchor > value + TOLERANCE) return anchor;
+                }
+                return anchors[anchors.length - 1];
+            } else {
+                for (int i = anchors.length - 1; i >= 0; i--) {
+                    if (anchors[i] < value - TOLERANCE) return anchors[i];
+                }
+                return anchors[0];
+            }
+        }
+        float projected = value + velocity * VELOCITY_PROJECTION;
+        float target = anchors[0];
+        for (int i = 1; i < anchors.length; i++) {
+            if (Math.abs(anchors[i] - projected) < Math.abs(target - projected)) {
+                target = anchors[i];
+            }
+        }
+        return target;
+    }
+}
@@ -0,0 +1,103 @@
+package com.mancj.slideup.core;
+
+/**
+ * <p>Damped harmonic oscillator used to settle the slider from the release velocity.
+ * Values are advanced with the closed form solution, so any frame interval is stable</p>
+ */
+public final class Spring {
+    public static final float STIFFNESS_MEDIUM = 1500f;
+    public static final float DAMPING_RATIO_NO_BOUNCY = 1f;
+    
+    private static final float VALUE_THRESHOLD = 0.5f;
+    private static final float VELOCITY_THRESHOLD = VALUE_THRESHOLD * 62.5f;
+    
+    private final double mNaturalFrequency;
+    private final double mDampingRatio;
+    
+    private float mValue;
+    private float mVelocity;
+    private float mTarget;
+    
+    public Spring(float stiffness, float dampingRatio) {
+        mNaturalFrequency = Math.sqrt(stiffness);
+        mDampingRatio = dampingRatio;
+    }
+    
+    public void set(float value, float velocity, float target) {
+        mValue = value;
+        mVelocity = velocity;
+        mTarget = target;
+    }
+    
+    /**
+     * <p>Moves the rest position, keeping current value and velocity</p>
+     */
+    public void setTarget(float target) {
+        mTarget = target;
+    }
+    
+    public float getValue() {
+        return mValue;
+    }
+    
+    public float getVelocity() {
+        return mVelocity;
+    }
+    
+    public float getTarget() {
+        return mTarget;
+    }
+    
+    /**
+     * @param deltaSeconds time elapsed since previous update
+     * @return true if spring is visually at rest, value is snapped to the target then
+     */
+    public boolean update(double deltaSeconds) {
+        double displacement = mValue - mTarget;
+        double velocity = mVelocity;
+        double w0 = mNaturalFrequency;
+        double zeta = mDampingRatio;
+        double t = deltaSeconds;
+        double newDisplacement;
+        double newVelocity;
+        if (zeta > 1) {
+            double root = w0 * Math.sqrt(zeta * zeta - 1);
+            double gammaPlus = -zeta * w0 + root;
+            double gammaMinus = -zeta * w0 - root;
+            double coeffB = (gammaMinus * displacement - velocity) / (gammaMinus - gammaPlus);
+            double coeffA = displacement - coeffB;
+            double expMinus = Math.exp(gammaMinus * t);
+            double expPlus = Math.exp(gammaPlus * t);
+            newDisplacement = coeffA * expMinus + coeffB * expPlus;
+            newVelocity = coeffA * gammaMinus * expMinus + coeffB * gammaPlus * expPlus;
+        } else if (zeta == 1) {
+            double coeffA = displacement;
+            double coeffB = velocity + w0 * displacement;
+            double exp = Math.exp(-w0 * t);
+            newDisplacement = (coeffA + coeffB * t) * exp;
+            newVelocity = (coeffA + coeffB * t) * exp * -w0 + coeffB * exp;
+        } else {
+            double dampedFrequency = w0 * Math.sqrt(1 - zeta * zeta);
+            double cosCoeff = displacement;
+            double sinCoeff = (zeta * w0 * displacement + velocity) / dampedFrequency;
+            double exp = Math.exp(-zeta * w0 * t);
+            double cos = Math.cos(dampedFrequency * t);
+            double sin = Math.sin(dampedFrequency * t);
+            newDisplacement = exp * (cosCoeff * cos + sinCoeff * sin);
+            newVelocity = newDisplacement * -zeta * w0
+                    + exp * (-dampedFrequency * cosCoeff * sin + dampedFrequency * sinCoeff * cos);
+        }
+        mValue = (float) (mTarget + newDisplacement);
+        mVelocity = (float) newVelocity;
+        if (isAtRest()) {
+            mValue = mTarget;
+            mVelocity = 0;
+            return true;
+        }
+        return false;
+    }
+    
+    private boolean isAtRest() {
+        return Math.abs(mValue - mTarget) < VALUE_THRESHOLD && Math.abs(mVelocity) < VELOCITY_THRESHOLD;
+    }
+}
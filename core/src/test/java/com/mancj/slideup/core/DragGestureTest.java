@@ -0,0 +1,53 @@
+package com.mancj.slideup.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DragGestureTest {
+    private static final float DELTA = 0.001f;
+    
+    private DragGesture mGesture;
+    
+    @Before
+    public void setUp() {
+        SlideEngine engine = new SlideEngine(new SnapEngine(new float[0], 0));
+        engine.setSize(1000, 1048);
+        mGesture = new DragGesture(engine);
+    }
+    
+    @Test
+    public void followsPointerTowardsHiddenState() {
+        mGesture.begin(100, 0, false);
+        assertTrue(mGesture.move(350));
+        assertEquals(250, mGesture.getTranslation(), DELTA);
+        assertEquals(25, mGesture.getPercent(), DELTA);
+    }
+    
+    @Test
+    public void reversedSliderMovesToNegativeTranslation() {
+        mGesture.begin(500, -100, true);
+        assertTrue(mGesture.move(300));
+        assertEquals(-300, mGesture.getTranslation(), DELTA);
+        assertEquals(30, mGesture.getPercent(), DELTA);
+        assertEquals(300, mGesture.toValue(mGesture.getTranslation()), DELTA);
+    }
+    
+    @Test
+    public void dragIsLimitedByShownAndHiddenStates() {
+        mGesture.begin(0, 0, false);
+        assertFalse(mGesture.move(-50));
+        assertTrue(mGesture.move(5000));
+        assertEquals(1048, mGesture.getTranslation(), DELTA);
+    }
+    
+    @Test
+    public void movedOnlyOffStartTranslation() {
+        mGesture.begin(0, 200, false);
+        assertFalse(mGesture.isMoved(200));
+        assertTrue(mGesture.isMoved(201));
+    }
+}
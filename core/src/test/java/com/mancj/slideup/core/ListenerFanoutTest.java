@@ -0,0 +1,25 @@
+package com.mancj.slideup.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListenerFanoutTest {
+    
+    @Test
+    public void deliversToEveryListenerInOrder() {
+        final List<String> delivered = new ArrayList<>();
+        ListenerFanout.deliver(new String[]{"a", "b", "c"}, new ListenerFanout.Delivery<String>() {
+            @Override
+            public void deliver(String listener, int index) {
+                delivered.add(listener + index);
+            }
+        });
+        assertEquals(3, delivered.size());
+        assertEquals("a0", delivered.get(0));
+        assertEquals("c2", delivered.get(2));
+    }
+}
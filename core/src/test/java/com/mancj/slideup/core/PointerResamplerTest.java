@@ -0,0 +1,68 @@
+package com.mancj.slideup.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PointerResamplerTest {
+    private static final float DELTA = 0.001f;
+    
+    private PointerResampler mResampler;
+    
+    @Before
+    public void setUp() {
+        mResampler = new PointerResampler();
+    }
+    
+    @Test
+    public void singleSampleIsReturnedAsIs() {
+        mResampler.addSample(100, 50);
+        assertEquals(50, mResampler.resample(108, 8), DELTA);
+    }
+    
+    @Test
+    public void interpolatesBetweenSamples() {
+        mResampler.addSample(100, 0);
+        mResampler.addSample(110, 100);
+        assertEquals(40, mResampler.resample(104, 8), DELTA);
+    }
+    
+    @Test
+    public void extrapolatesAheadOfLatestSample() {
+        mResampler.addSample(100, 0);
+        mResampler.addSample(110, 100);
+        assertEquals(140, mResampler.resample(114, 8), DELTA);
+    }
+    
+    @Test
+    public void extrapolationIsLimited() {
+        mResampler.addSample(100, 0);
+        mResampler.addSample(110, 100);
+        assertEquals(180, mResampler.resample(125, 8), DELTA);
+    }
+    
+    @Test
+    public void pausedPointerIsNotExtrapolated() {
+        mResampler.addSample(100, 0);
+        mResampler.addSample(110, 100);
+        assertEquals(100, mResampler.resample(200, 8), DELTA);
+    }
+    
+    @Test
+    public void sampleWithSameTimeReplacesPosition() {
+        mResampler.addSample(100, 0);
+        mResampler.addSample(110, 100);
+        mResampler.addSample(110, 120);
+        assertEquals(120, mResampler.resample(110, 8), DELTA);
+    }
+    
+    @Test
+    public void resetDropsSamples() {
+        mResampler.addSample(100, 0);
+        mResampler.addSample(110, 100);
+        mResampler.reset();
+        mResampler.addSample(200, 30);
+        assertEquals(30, mResampler.resample(210, 8), DELTA);
+    }
+}
@@ -0,0 +1,75 @@
+package com.mancj.slideup.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SlideEngineTest {
+    private static final float DELTA = 0.001f;
+    
+    private SlideEngine mEngine;
+    
+    @Before
+    public void setUp() {
+        mEngine = new SlideEngine(new SnapEngine(new float[0], 0));
+        mEngine.setSize(1000, 1048);
+        mEngine.setMinFlingVelocity(100);
+    }
+    
+    @Test
+    public void dragIsLimitedByShownAndHiddenStates() {
+        assertEquals(0, mEngine.limitDrag(-50), DELTA);
+        assertEquals(300, mEngine.limitDrag(300), DELTA);
+        assertEquals(1048, mEngine.limitDrag(2000), DELTA);
+    }
+    
+    @Test
+    public void dragIsLimitedByPeek() {
+        SlideEngine engine = new SlideEngine(new SnapEngine(new float[0], 100));
+        engine.setSize(1000, 1000);
+        assertEquals(900, engine.limitDrag(1000), DELTA);
+    }
+    
+    @Test
+    public void percentIsRelativeToSize() {
+        assertEquals(50, mEngine.getPercent(500), DELTA);
+        assertEquals(100, SlideEngine.clampPercent(mEngine.getPercent(1048)), DELTA);
+        assertEquals(0, SlideEngine.clampPercent(-5), DELTA);
+    }
+    
+    @Test
+    public void settleTargetWithoutAnchors() {
+        assertEquals(1048, mEngine.findSettleTarget(100, 500), DELTA);
+        assertEquals(0, mEngine.findSettleTarget(900, -500), DELTA);
+        // slow releases hide the slider after a fifth of its size only
+        assertEquals(0, mEngine.findSettleTarget(150, 0), DELTA);
+        assertEquals(1048, mEngine.findSettleTarget(250, 0), DELTA);
+        assertEquals(0, mEngine.findSettleTarget(250, -50), DELTA);
+    }
+    
+    @Test
+    public void slowSettleDurationIsProportionalToDistance() {
+        assertEquals(150, mEngine.computeSettleDuration(500, 1000, 0, 300));
+        assertEquals(300, mEngine.computeSettleDuration(0, 1000, 0, 300));
+    }
+    
+    @Test
+    public void flingSettleDurationFollowsVelocity() {
+        // twice of the distance over the velocity: 2 * 200 px / 4000 px/s
+        assertEquals(100, mEngine.computeSettleDuration(800, 1000, 4000, 300));
+    }
+    
+    @Test
+    public void settleDurationIsClamped() {
+        assertEquals(SlideEngine.MIN_SETTLE_DURATION, mEngine.computeSettleDuration(999, 1000, 0, 300));
+        assertEquals(300, mEngine.computeSettleDuration(0, 1000, 200, 300));
+    }
+    
+    @Test
+    public void animationFraction() {
+        assertEquals(0.5f, SlideEngine.animationFraction(150000000L, 300), DELTA);
+        assertEquals(1, SlideEngine.animationFraction(400000000L, 300), DELTA);
+        assertEquals(1, SlideEngine.animationFraction(0, 0), DELTA);
+    }
+}
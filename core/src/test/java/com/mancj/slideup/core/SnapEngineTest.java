@@ -0,0 +1,75 @@
+package com.mancj.slideup.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SnapEngineTest {
+    private static final float DELTA = 0.001f;
+    
+    @Test
+    public void anchorsAreSortedFromShownToHidden() {
+        SnapEngine engine = new SnapEngine(new float[]{0.25f, 0.5f}, 0);
+        engine.setSize(1000, 1000);
+        assertEquals(4, engine.getAnchorCount());
+        assertEquals(0, engine.getAnchor(0), DELTA);
+        assertEquals(500, engine.getAnchor(1), DELTA);
+        assertEquals(750, engine.getAnchor(2), DELTA);
+        assertEquals(1000, engine.getCollapsedValue(), DELTA);
+    }
+    
+    @Test
+    public void hiddenValueIsTheCollapsedAnchor() {
+        SnapEngine engine = new SnapEngine(new float[0], 0);
+        engine.setSize(1000, 1048);
+        assertFalse(engine.isEnabled());
+        assertEquals(1048, engine.getCollapsedValue(), DELTA);
+        assertEquals(1, engine.indexOf(1048));
+    }
+    
+    @Test
+    public void peekReplacesHiddenState() {
+        SnapEngine engine = new SnapEngine(new float[0], 200);
+        engine.setSize(1000, 1000);
+        assertTrue(engine.hasPeek());
+        assertEquals(800, engine.getCollapsedValue(), DELTA);
+        assertEquals(-1, engine.indexOf(1000));
+    }
+    
+    @Test
+    public void duplicateAnchorsAreMerged() {
+        SnapEngine engine = new SnapEngine(new float[]{1f, 0f}, 0);
+        engine.setSize(1000, 1000);
+        assertEquals(2, engine.getAnchorCount());
+    }
+    
+    @Test
+    public void indexOfToleratesRounding() {
+        SnapEngine engine = new SnapEngine(new float[]{0.5f}, 0);
+        engine.setSize(1000, 1000);
+        assertEquals(1, engine.indexOf(500.4f));
+        assertEquals(-1, engine.indexOf(510));
+    }
+    
+    @Test
+    public void flingGoesToNextAnchorInItsDirection() {
+        SnapEngine engine = new SnapEngine(new float[]{0.5f}, 0);
+        engine.setSize(1000, 1000);
+        assertEquals(500, engine.findTarget(100, 3000, true), DELTA);
+        assertEquals(1000, engine.findTarget(600, 3000, true), DELTA);
+        assertEquals(500, engine.findTarget(900, -3000, true), DELTA);
+        assertEquals(0, engine.findTarget(400, -3000, true), DELTA);
+    }
+    
+    @Test
+    public void slowReleaseGoesToNearestProjectedAnchor() {
+        SnapEngine engine = new SnapEngine(new float[]{0.5f}, 0);
+        engine.setSize(1000, 1000);
+        assertEquals(0, engine.findTarget(200, 0, false), DELTA);
+        assertEquals(500, engine.findTarget(400, 0, false), DELTA);
+        // 100 ms of 2000 px/s moves the projection from 650 to 850
+        assertEquals(1000, engine.findTarget(650, 2000, false), DELTA);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mancj.slideup.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpringTest {
+    private static final double FRAME = 1 / 60.0;
+    
+    @Test
+    public void criticallyDampedSpringRestsAtTargetWithoutOvershoot() {
+        Spring spring = new Spring(Spring.STIFFNESS_MEDIUM, Spring.DAMPING_RATIO_NO_BOUNCY);
+        spring.set(0, 0, 1000);
+        int frames = 0;
+        boolean atRest = false;
+        while (!atRest && frames < 600) {
+            atRest = spring.update(FRAME);
+            assertTrue(spring.getValue() <= 1000);
+            frames++;
+        }
+        assertTrue(atRest);
+        assertEquals(1000, spring.getValue(), 0);
+        assertEquals(0, spring.getVelocity(), 0);
+    }
+    
+    @Test
+    public void bouncySpringOvershoots() {
+        Spring spring = new Spring(Spring.STIFFNESS_MEDIUM, 0.3f);
+        spring.set(0, 0, 1000);
+        float max = 0;
+        for (int i = 0; i < 600 && !spring.update(FRAME); i++) {
+            max = Math.max(max, spring.getValue());
+        }
+        assertTrue(max > 1000);
+        assertEquals(1000, spring.getValue(), 0);
+    }
+    
+    @Test
+    public void updatesDoNotDependOnFrameInterval() {
+        Spring once = new Spring(Spring.STIFFNESS_MEDIUM, 0.5f);
+        once.set(0, 2000, 1000);
+        once.update(0.1);
+        Spring often = new Spring(Spring.STIFFNESS_MEDIUM, 0.5f);
+        often.set(0, 2000, 1000);
+        for (int i = 0; i < 10; i++) {
+            often.update(0.01);
+        }
+        assertEquals(once.getValue(), often.getValue(), 0.1f);
+    }
+    
+    @Test
+    public void retargetKeepsValueAndVelocity() {
+        Spring spring = new Spring(Spring.STIFFNESS_MEDIUM, Spring.DAMPING_RATIO_NO_BOUNCY);
+        spring.set(0, 0, 1000);
+        spring.update(FRAME);
+        float value = spring.getValue();
+        float velocity = spring.getVelocity();
+        spring.setTarget(0);
+        assertEquals(value, spring.getValue(), 0);
+        assertEquals(velocity, spring.getVelocity(), 0);
+        assertEquals(0, spring.getTarget(), 0);
+    }
+}
@@ -1,51 +1,424 @@
 package com.mancj.slideup;
 
 import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewPropertyAnimator;
+
+import com.mancj.slideup.core.SlideEngine;
+import com.mancj.slideup.core.Spring;
+
+import static android.view.Gravity.BOTTOM;
+import static android.view.Gravity.START;
+import static android.view.Gravity.TOP;
 
 /**
  * @author pa.gulko zTrap (12.07.2017)
  */
-class AnimationProcessor {
+class AnimationProcessor implements FrameDriver.Client {
     private SlideUpBuilder mBuilder;
-    private ValueAnimator mValueAnimator;
     private float mSlideAnimationTo;
     
-    AnimationProcessor(SlideUpBuilder builder, ValueAnimator.AnimatorUpdateListener updateListener, Animator.AnimatorListener listener){
+    private SettleListener mSettleListener;
+    private Spring mSpring;
+    private boolean mSpringRunning;
+    private long mLastFrameTimeNanos;
+    
+    private FrameDriver mFrameDriver;
+    private boolean mSharedFrameDriver;
+    
+    private final ValueAnimatorBackend mValueAnimatorBackend;
+    private ChoreographerBackend mChoreographerBackend;
+    private ViewPropertyBackend mViewPropertyBackend;
+    private Backend mBackend;
+    
+    /**
+     * <p>Runs the interpolated settle animation from one value to another</p>
+     */
+    interface Backend {
+    
+        /**
+         * <p>Starts or restarts the animation, settle listener receives all values of it</p>
+         */
+        void start(float from, float to, long duration);
+        
+        /**
+         * <p>Stops the animation at its current value, settle listener is not notified</p>
+         */
+        void cancel();
+        
+        /**
+         * <p>Stops the animation at its target value, settle listener receives the target and the end</p>
+         */
+        void end();
+        
+        boolean isRunning();
+    }
+    
+    AnimationProcessor(SlideUpBuilder builder, ValueAnimator.AnimatorUpdateListener updateListener, Animator.AnimatorListener listener,
+                       SettleListener settleListener){
         mBuilder = builder;
-        createAnimation(updateListener, listener);
+        mSettleListener = settleListener;
+        mValueAnimatorBackend = new ValueAnimatorBackend(updateListener, listener);
+    }
+    
+    /**
+     * <p>Makes animations run on the frames of the shared driver, or on own animators again if null</p>
+     */
+    void setFrameDriver(FrameDriver frameDriver) {
+        endAnimation();
+        mFrameDriver = frameDriver;
+        mSharedFrameDriver = frameDriver != null;
     }
     
     void endAnimation() {
-        if (mValueAnimator != null && mValueAnimator.getValues() != null && mValueAnimator.isRunning()) {
-            mValueAnimator.end();
+        if (mBackend != null && mBackend.isRunning()) {
+            mBackend.end();
+        }
+        if (mSpringRunning) {
+            mSpringRunning = false;
+            mFrameDriver.removeClient(this);
+            mSettleListener.onSettleUpdate(mSlideAnimationTo);
+            mSettleListener.onSettleEnd();
+        }
+    }
+    
+    /**
+     * <p>Stops the animation at its current value, settle listener is not notified</p>
+     */
+    void cancelAnimation() {
+        if (mBackend != null && mBackend.isRunning()) {
+            mBackend.cancel();
+        }
+        if (mSpringRunning) {
+            mSpringRunning = false;
+            mFrameDriver.removeClient(this);
         }
     }
     
     void paramsChanged(){
-        mValueAnimator.setDuration(mBuilder.mAutoSlideDuration);
-        mValueAnimator.setInterpolator(mBuilder.mInterpolator);
+        mValueAnimatorBackend.paramsChanged();
     }
     
     float getSlideAnimationTo() {
         return mSlideAnimationTo;
     }
     
+    float getAnimatedValue(ValueAnimator animation) {
+        return mValueAnimatorBackend.getAnimatedValue(animation);
+    }
+    
     boolean isAnimationRunning(){
-        return mValueAnimator != null && mValueAnimator.isRunning();
+        return mSpringRunning || mBackend != null && mBackend.isRunning();
     }
     
     void setValuesAndStart(float from, float to){
-        mSlideAnimationTo = to;
-        mValueAnimator.setFloatValues(from, to);
-        mValueAnimator.start();
+        setValuesAndStart(from, to, mBuilder.mAutoSlideDuration, 0);
     }
     
-    private void createAnimation(ValueAnimator.AnimatorUpdateListener updateListener, Animator.AnimatorListener listener){
-        mValueAnimator = ValueAnimator.ofFloat();
-        mValueAnimator.setDuration(mBuilder.mAutoSlideDuration);
-        mValueAnimator.setInterpolator(mBuilder.mInterpolator);
-        mValueAnimator.addUpdateListener(updateListener);
-        mValueAnimator.addListener(listener);
+    /**
+     * @param duration used by the interpolated animation only
+     * @param velocity start velocity in value units per second, used by the spring only
+     */
+    void setValuesAndStart(float from, float to, long duration, float velocity){
+        if (useSpring()) {
+            mSlideAnimationTo = to;
+            startSpring(from, to, velocity);
+        } else {
+            Backend backend = selectBackend();
+            if (mBackend != null && mBackend != backend && mBackend.isRunning()) {
+                mBackend.cancel();
+            }
+            mBackend = backend;
+            mSlideAnimationTo = to;
+            backend.start(from, to, duration);
+        }
+        mSettleListener.onSettleStart(to);
+    }
+    
+    private boolean useSpring() {
+        return mBuilder.mSpringEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+    }
+    
+    /**
+     * <p>Sliders of a group always use the shared frame driver, so they stay in sync</p>
+     */
+    private Backend selectBackend() {
+        if (mSharedFrameDriver) {
+            return getChoreographerBackend();
+        }
+        switch (mBuilder.mAnimationBackend) {
+            case VIEW_PROPERTY_ANIMATOR:
+                // values of the view property animator are not observable
+                if (!mSettleListener.needsFrameUpdates()) {
+                    return getViewPropertyBackend();
+                }
+                return mValueAnimatorBackend;
+            case CHOREOGRAPHER:
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                    return getChoreographerBackend();
+                }
+                return mValueAnimatorBackend;
+            default:
+                return mValueAnimatorBackend;
+        }
+    }
+    
+    private ChoreographerBackend getChoreographerBackend() {
+        if (mChoreographerBackend == null) {
+            mChoreographerBackend = new ChoreographerBackend();
+        }
+        return mChoreographerBackend;
+    }
+    
+    private ViewPropertyBackend getViewPropertyBackend() {
+        if (mViewPropertyBackend == null) {
+            mViewPropertyBackend = new ViewPropertyBackend();
+        }
+        return mViewPropertyBackend;
+    }
+    
+    private void startSpring(float from, float to, float velocity) {
+        if (mBackend != null && mBackend.isRunning()) {
+            mBackend.cancel();
+        }
+        if (mSpring == null) {
+            mSpring = new Spring(mBuilder.mSpringStiffness, mBuilder.mSpringDampingRatio);
+        }
+        if (mSpringRunning) {
+            // keep position and velocity, so the motion stays continuous
+            mSpring.setTarget(to);
+            return;
+        }
+        mSpring.set(from, velocity, to);
+        mSpringRunning = true;
+        mLastFrameTimeNanos = 0;
+        getFrameDriver().addClient(this);
+    }
+    
+    private FrameDriver getFrameDriver() {
+        if (mFrameDriver == null) {
+            mFrameDriver = new FrameDriver();
+        }
+        return mFrameDriver;
+    }
+    
+    @Override
+    public boolean doFrame(long frameTimeNanos) {
+        if (!mSpringRunning) return false;
+        boolean atRest = false;
+        if (mLastFrameTimeNanos != 0) {
+            atRest = mSpring.update((frameTimeNanos - mLastFrameTimeNanos) / 1e9);
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+        mSpringRunning = !atRest;
+        mSettleListener.onSettleUpdate(mSpring.getValue());
+        if (atRest) {
+            mSettleListener.onSettleEnd();
+        }
+        // settle listener may start a new animation
+        return mSpringRunning;
+    }
+    
+    /**
+     * <p>Platform animator, values are delivered through the update listener of the slider.
+     * Its other callbacks are passed on, except the end which the animator fires on cancel</p>
+     */
+    private class ValueAnimatorBackend extends AnimatorListenerAdapter implements Backend {
+        private final ValueAnimator mValueAnimator;
+        private final Animator.AnimatorListener mListener;
+        private boolean mCancelling;
+        private float mFrom;
+        
+        ValueAnimatorBackend(ValueAnimator.AnimatorUpdateListener updateListener, Animator.AnimatorListener listener) {
+            mListener = listener;
+            mValueAnimator = ValueAnimator.ofFloat(0, 1);
+            mValueAnimator.setDuration(mBuilder.mAutoSlideDuration);
+            mValueAnimator.setInterpolator(mBuilder.mInterpolator);
+            mValueAnimator.addUpdateListener(updateListener);
+            mValueAnimator.addListener(this);
+        }
+        
+        void paramsChanged() {
+            mValueAnimator.setDuration(mBuilder.mAutoSlideDuration);
+            mValueAnimator.setInterpolator(mBuilder.mInterpolator);
+        }
+        
+        /**
+         * <p>Returns current value of the animator. It runs from 0 to 1, and its boxed animated value
+         * is never read, so no {@link Float} is allocated per frame</p>
+         */
+        float getAnimatedValue(ValueAnimator animation) {
+            return mFrom + (mSlideAnimationTo - mFrom) * animation.getAnimatedFraction();
+        }
+        
+        @Override
+        public void start(float from, float to, long duration) {
+            mFrom = from;
+            mValueAnimator.setDuration(duration);
+            mValueAnimator.start();
+        }
+        
+        @Override
+        public void cancel() {
+            mCancelling = true;
+            mValueAnimator.cancel();
+            mCancelling = false;
+        }
+        
+        @Override
+        public void end() {
+            mValueAnimator.end();
+        }
+        
+        @Override
+        public boolean isRunning() {
+            return mValueAnimator.isRunning();
+        }
+        
+        @Override
+        public void onAnimationStart(Animator animation) {
+            mListener.onAnimationStart(animation);
+        }
+        
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            if (mCancelling) return;
+            mListener.onAnimationEnd(animation);
+        }
+        
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            mListener.onAnimationCancel(animation);
+        }
+        
+        @Override
+        public void onAnimationRepeat(Animator animation) {
+            mListener.onAnimationRepeat(animation);
+        }
+    }
+    
+    /**
+     * <p>Interpolated animation advanced by the frame driver, which may be shared by several sliders</p>
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private class ChoreographerBackend implements Backend, FrameDriver.Client {
+        private boolean mRunning;
+        private long mStartNanos;
+        private long mDuration;
+        private float mFrom;
+        
+        @Override
+        public void start(float from, float to, long duration) {
+            mFrom = from;
+            mDuration = duration;
+            // start time is taken from the first frame, so animations started together stay in sync
+            mStartNanos = 0;
+            mRunning = true;
+            getFrameDriver().addClient(this);
+        }
+        
+        @Override
+        public void cancel() {
+            if (!mRunning) return;
+            mRunning = false;
+            mFrameDriver.removeClient(this);
+        }
+        
+        @Override
+        public void end() {
+            if (!mRunning) return;
+            cancel();
+            mSettleListener.onSettleUpdate(mSlideAnimationTo);
+            mSettleListener.onSettleEnd();
+        }
+        
+        @Override
+        public boolean isRunning() {
+            return mRunning;
+        }
+        
+        @Override
+        public boolean doFrame(long frameTimeNanos) {
+            if (!mRunning) return false;
+            if (mStartNanos == 0) {
+                mStartNanos = frameTimeNanos;
+            }
+            float fraction = SlideEngine.animationFraction(frameTimeNanos - mStartNanos, mDuration);
+            boolean finished = fraction == 1;
+            float interpolated = mBuilder.mInterpolator.getInterpolation(fraction);
+            mRunning = !finished;
+            mSettleListener.onSettleUpdate(mFrom + (mSlideAnimationTo - mFrom) * interpolated);
+            if (finished) {
+                mSettleListener.onSettleEnd();
+            }
+            // settle listener may start a new animation
+            return mRunning;
+        }
+    }
+    
+    /**
+     * <p>Animates translation of the slider with its {@link ViewPropertyAnimator}, no code of the slider
+     * runs per frame of the animation. Settle listener receives the target value at the end only</p>
+     * <p>The platform runs a view property animation on the render thread only when it has no listener
+     * and no end action. The end of the settle is needed, so frames are still produced on the main thread
+     * and stall with it</p>
+     */
+    private class ViewPropertyBackend extends AnimatorListenerAdapter implements Backend {
+        private boolean mRunning;
+        
+        @Override
+        public void start(float from, float to, long duration) {
+            View view = mBuilder.mSliderView;
+            ViewPropertyAnimator animator = view.animate();
+            // a retarget must not finish the previous animation at the new target
+            mRunning = false;
+            animator.setListener(null);
+            animator.cancel();
+            mRunning = true;
+            animator.setDuration(duration)
+                    .setInterpolator(mBuilder.mInterpolator)
+                    .setListener(this);
+            int gravity = mBuilder.mStartGravity;
+            float translation = gravity == TOP || gravity == START ? -to : to;
+            if (gravity == TOP || gravity == BOTTOM) {
+                animator.translationY(translation);
+            } else {
+                animator.translationX(translation);
+            }
+            animator.start();
+        }
+        
+        @Override
+        public void cancel() {
+            if (!mRunning) return;
+            mRunning = false;
+            mBuilder.mSliderView.animate().cancel();
+        }
+        
+        @Override
+        public void end() {
+            if (!mRunning) return;
+            cancel();
+            mSettleListener.onSettleUpdate(mSlideAnimationTo);
+            mSettleListener.onSettleEnd();
+        }
+        
+        @Override
+        public boolean isRunning() {
+            return mRunning;
+        }
+        
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            if (!mRunning) return;
+            mRunning = false;
+            mBuilder.mSliderView.animate().setListener(null);
+            mSettleListener.onSettleUpdate(mSlideAnimationTo);
+            mSettleListener.onSettleEnd();
+        }
     }
 }
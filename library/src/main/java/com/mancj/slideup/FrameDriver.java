@@ -0,0 +1,74 @@
+package com.mancj.slideup;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * <p>Single {@link Choreographer} frame callback which advances any number of animations,
+ * so all of them observe the same frame time</p>
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+class FrameDriver implements Choreographer.FrameCallback {
+    
+    interface Client {
+        
+        /**
+         * @return true if the client needs the next frame
+         */
+        boolean doFrame(long frameTimeNanos);
+    }
+    
+    private final ArrayList<Client> mClients = new ArrayList<>();
+    private boolean mFramePosted;
+    private boolean mDispatching;
+    
+    void addClient(Client client) {
+        if (!mClients.contains(client)) {
+            mClients.add(client);
+        }
+        postFrame();
+    }
+    
+    void removeClient(Client client) {
+        int index = mClients.indexOf(client);
+        if (index == -1) return;
+        if (mDispatching) {
+            // compacted after dispatch, so indices of the running loop stay valid
+            mClients.set(index, null);
+        } else {
+            mClients.remove(index);
+        }
+    }
+    
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFramePosted = false;
+        mDispatching = true;
+        // clients added during dispatch start with the next frame
+        int count = mClients.size();
+        for (int i = 0; i < count; i++) {
+            Client client = mClients.get(i);
+            if (client != null && !client.doFrame(frameTimeNanos)) {
+                mClients.set(i, null);
+            }
+        }
+        mDispatching = false;
+        for (int i = mClients.size() - 1; i >= 0; i--) {
+            if (mClients.get(i) == null) {
+                mClients.remove(i);
+            }
+        }
+        if (!mClients.isEmpty()) {
+            postFrame();
+        }
+    }
+    
+    private void postFrame() {
+        if (mFramePosted) return;
+        mFramePosted = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+}
@@ -0,0 +1,129 @@
+package com.mancj.slideup;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.Build;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+import android.view.WindowManager;
+
+/**
+ * <p>Collects {@link SlideMetrics} of an interaction from {@link Choreographer} frame times.
+ * Interaction starts with a gesture or a settle and finishes when both of them are over</p>
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+class FrameTimingTracker implements Choreographer.FrameCallback {
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 1000000000L / 60;
+    
+    interface Callback {
+        
+        void onMetricsCollected(SlideMetrics metrics);
+    }
+    
+    private final View mView;
+    private final Callback mCallback;
+    
+    private boolean mTracking;
+    private boolean mGesture;
+    private boolean mMoved;
+    private long mFrameIntervalNanos;
+    private long mFirstFrameNanos;
+    private long mLastFrameNanos;
+    private int mFrameCount;
+    private int mLateFrameCount;
+    private int mDroppedFrameCount;
+    private long mMaxFrameTimeNanos;
+    private long mLastInputNanos;
+    private long mFirstMoveInputNanos;
+    private long mInputLatencyNanos;
+    
+    FrameTimingTracker(View view, Callback callback) {
+        mView = view;
+        mCallback = callback;
+    }
+    
+    /**
+     * @param gesture true if the interaction is driven by the user
+     */
+    void start(boolean gesture) {
+        if (mTracking) {
+            mGesture |= gesture;
+            return;
+        }
+        mTracking = true;
+        mGesture = gesture;
+        mMoved = false;
+        mFrameIntervalNanos = getFrameIntervalNanos();
+        mFirstFrameNanos = 0;
+        mLastFrameNanos = 0;
+        mFrameCount = 0;
+        mLateFrameCount = 0;
+        mDroppedFrameCount = 0;
+        mMaxFrameTimeNanos = 0;
+        mFirstMoveInputNanos = 0;
+        mInputLatencyNanos = -1;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+    
+    /**
+     * @param eventTime time of the touch event being handled, in the {@link android.os.SystemClock#uptimeMillis()} time base
+     */
+    void onInput(long eventTime) {
+        mLastInputNanos = eventTime * 1000000;
+    }
+    
+    /**
+     * <p>Called whenever the slider is moved</p>
+     */
+    void onMoved() {
+        if (!mTracking) return;
+        mMoved = true;
+        if (mGesture && mFirstMoveInputNanos == 0 && mLastInputNanos != 0) {
+            mFirstMoveInputNanos = mLastInputNanos;
+        }
+    }
+    
+    void finish() {
+        if (!mTracking) return;
+        mTracking = false;
+        mLastInputNanos = 0;
+        Choreographer.getInstance().removeFrameCallback(this);
+        if (!mMoved || mFrameCount == 0) return;
+        mCallback.onMetricsCollected(new SlideMetrics(mGesture, mFrameCount, mLateFrameCount, mDroppedFrameCount,
+                mMaxFrameTimeNanos, mInputLatencyNanos, mLastFrameNanos - mFirstFrameNanos));
+    }
+    
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mTracking) return;
+        if (mFrameCount == 0) {
+            mFirstFrameNanos = frameTimeNanos;
+        } else {
+            long frameTime = frameTimeNanos - mLastFrameNanos;
+            if (frameTime > mMaxFrameTimeNanos) {
+                mMaxFrameTimeNanos = frameTime;
+            }
+            // anything beyond a half of the refresh interval means a missed vsync
+            long missed = (frameTime - mFrameIntervalNanos / 2) / mFrameIntervalNanos;
+            if (missed > 0) {
+                mLateFrameCount++;
+                mDroppedFrameCount += missed;
+            }
+        }
+        if (mFirstMoveInputNanos != 0 && mInputLatencyNanos == -1) {
+            // System.nanoTime() and uptimeMillis() share the monotonic clock
+            mInputLatencyNanos = Math.max(0, frameTimeNanos - mFirstMoveInputNanos);
+        }
+        mFrameCount++;
+        mLastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+    
+    private long getFrameIntervalNanos() {
+        WindowManager windowManager = (WindowManager) mView.getContext().getSystemService(Context.WINDOW_SERVICE);
+        Display display = windowManager == null ? null : windowManager.getDefaultDisplay();
+        float refreshRate = display == null ? 0 : display.getRefreshRate();
+        return refreshRate > 0 ? (long) (1000000000L / refreshRate) : DEFAULT_FRAME_INTERVAL_NANOS;
+    }
+}
@@ -0,0 +1,106 @@
+package com.mancj.slideup;
+
+import android.support.annotation.NonNull;
+import android.view.MotionEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * <p>Records touch events handled by {@link SlideUp} into a compact binary trace,
+ * which can be fed back with {@link GestureReplayer}</p>
+ *
+ * <p>Trace starts with the {@link #MAGIC} int and the {@link #VERSION} byte, followed by events:
+ * <ul>
+ * <li>action <b>(byte)</b>, masked action of the event</li>
+ * <li>time <b>(int)</b>, ms since the first recorded event</li>
+ * <li>raw offset x, y <b>(2 floats)</b>, difference between raw and local coordinates</li>
+ * <li>history size <b>(short)</b>, then time <b>(int)</b> and raw x, y <b>(2 floats)</b> of each historical sample</li>
+ * <li>raw x, y <b>(2 floats)</b> of the event</li>
+ * </ul>
+ * Only the first pointer is recorded, the same one which drags the slider</p>
+ *
+ * @see SlideUp#setGestureRecorder(GestureRecorder)
+ */
+public final class GestureRecorder {
+    static final int MAGIC = 0x534c4752;
+    static final byte VERSION = 1;
+    
+    private final ByteArrayOutputStream mBytes = new ByteArrayOutputStream();
+    private final DataOutputStream mOut = new DataOutputStream(mBytes);
+    private long mStartTime = -1;
+    private int mEventCount;
+    
+    public GestureRecorder() {
+        writeHeader();
+    }
+    
+    void record(MotionEvent event) {
+        if (mStartTime == -1) {
+            mStartTime = event.getHistorySize() > 0 ? event.getHistoricalEventTime(0) : event.getEventTime();
+        }
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+        try {
+            mOut.writeByte(event.getActionMasked());
+            mOut.writeInt((int) (event.getEventTime() - mStartTime));
+            mOut.writeFloat(offsetX);
+            mOut.writeFloat(offsetY);
+            int historySize = event.getHistorySize();
+            mOut.writeShort(historySize);
+            for (int i = 0; i < historySize; i++) {
+                mOut.writeInt((int) (event.getHistoricalEventTime(i) - mStartTime));
+                mOut.writeFloat(event.getHistoricalX(i) + offsetX);
+                mOut.writeFloat(event.getHistoricalY(i) + offsetY);
+            }
+            mOut.writeFloat(event.getRawX());
+            mOut.writeFloat(event.getRawY());
+        } catch (IOException e) {
+            // never thrown by an in-memory stream
+            throw new IllegalStateException(e);
+        }
+        mEventCount++;
+    }
+    
+    /**
+     * <p>Returns count of recorded events</p>
+     */
+    public int getEventCount() {
+        return mEventCount;
+    }
+    
+    /**
+     * <p>Returns recorded trace</p>
+     */
+    public byte[] toByteArray() {
+        return mBytes.toByteArray();
+    }
+    
+    /**
+     * <p>Writes recorded trace to the stream, the stream is not closed</p>
+     */
+    public void writeTo(@NonNull OutputStream out) throws IOException {
+        mBytes.writeTo(out);
+    }
+    
+    /**
+     * <p>Drops recorded events, next event starts a new trace</p>
+     */
+    public void reset() {
+        mBytes.reset();
+        mStartTime = -1;
+        mEventCount = 0;
+        writeHeader();
+    }
+    
+    private void writeHeader() {
+        try {
+            mOut.writeInt(MAGIC);
+            mOut.writeByte(VERSION);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.mancj.slideup;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>Feeds a trace written by {@link GestureRecorder} back into a {@link SlideUp}, measuring
+ * how long each event takes to handle. Events are dispatched to the slider view</p>
+ */
+public final class GestureReplayer {
+    private final int mEventCount;
+    private final byte[] mActions;
+    private final int[] mTimes;
+    private final float[] mOffsetX;
+    private final float[] mOffsetY;
+    private final float[] mX;
+    private final float[] mY;
+    /**
+     * Historical samples of event i are at [mHistoryStart[i], mHistoryStart[i + 1])
+     */
+    private final int[] mHistoryStart;
+    private final int[] mHistoryTimes;
+    private final float[] mHistoryX;
+    private final float[] mHistoryY;
+    
+    private long mDownTime;
+    
+    /**
+     * <p>Called once a paced replay is over</p>
+     */
+    public interface Callback {
+        
+        void onReplayFinished(Result result);
+    }
+    
+    /**
+     * @param trace bytes written by {@link GestureRecorder}
+     * @throws IllegalArgumentException if the trace is malformed
+     */
+    public GestureReplayer(@NonNull byte[] trace) {
+        this(new ByteArrayInputStream(trace), trace.length);
+    }
+    
+    /**
+     * <p>Reads the whole trace from the stream, the stream is not closed</p>
+     */
+    public static GestureReplayer read(@NonNull InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return new GestureReplayer(bytes.toByteArray());
+    }
+    
+    private GestureReplayer(ByteArrayInputStream bytes, int length) {
+        DataInputStream in = new DataInputStream(bytes);
+        try {
+            if (length < 5 || in.readInt() != GestureRecorder.MAGIC) {
+                throw new IllegalArgumentException("Not a gesture trace");
+            }
+            int version = in.readByte();
+            if (version != GestureRecorder.VERSION) {
+                throw new IllegalArgumentException("Unsupported gesture trace version " + version);
+            }
+            // every event takes at least 23 bytes, every historical sample takes 12 bytes
+            int maxEvents = length / 23;
+            byte[] actions = new byte[maxEvents];
+            int[] times = new int[maxEvents];
+            float[] offsetX = new float[maxEvents];
+            float[] offsetY = new float[maxEvents];
+            float[] x = new float[maxEvents];
+            float[] y = new float[maxEvents];
+            int[] historyStart = new int[maxEvents + 1];
+            int maxSamples = length / 12;
+            int[] historyTimes = new int[maxSamples];
+            float[] historyX = new float[maxSamples];
+            float[] historyY = new float[maxSamples];
+            int count = 0;
+            int samples = 0;
+            while (bytes.available() > 0) {
+                actions[count] = in.readByte();
+                times[count] = in.readInt();
+                offsetX[count] = in.readFloat();
+                offsetY[count] = in.readFloat();
+                int historySize = in.readShort();
+                historyStart[count] = samples;
+                for (int i = 0; i < historySize; i++) {
+                    historyTimes[samples] = in.readInt();
+                    historyX[samples] = in.readFloat();
+                    historyY[samples] = in.readFloat();
+                    samples++;
+                }
+                x[count] = in.readFloat();
+                y[count] = in.readFloat();
+                count++;
+            }
+            historyStart[count] = samples;
+            mEventCount = count;
+            mActions = actions;
+            mTimes = times;
+            mOffsetX = offsetX;
+            mOffsetY = offsetY;
+            mX = x;
+            mY = y;
+            mHistoryStart = historyStart;
+            mHistoryTimes = historyTimes;
+            mHistoryX = historyX;
+            mHistoryY = historyY;
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Gesture trace is truncated", e);
+        }
+    }
+    
+    /**
+     * <p>Returns count of events in the trace</p>
+     */
+    public int getEventCount() {
+        return mEventCount;
+    }
+    
+    /**
+     * <p>Returns duration of the trace <b>(in ms)</b></p>
+     */
+    public long getDuration() {
+        return mEventCount == 0 ? 0 : mTimes[mEventCount - 1];
+    }
+    
+    /**
+     * <p>Dispatches all events right away on the calling thread. Their timestamps keep the recorded
+     * intervals, starting from {@link SystemClock#uptimeMillis()} at the call</p>
+     *
+     * @return processing time of every event and the state the slider ends in
+     */
+    public Result replay(@NonNull SlideUp slideUp) {
+        View view = slideUp.getSliderView();
+        long base = SystemClock.uptimeMillis();
+        long[] processingTimes = new long[mEventCount];
+        for (int i = 0; i < mEventCount; i++) {
+            processingTimes[i] = dispatch(slideUp, view, i, base, 1);
+        }
+        return new Result(slideUp, processingTimes);
+    }
+    
+    /**
+     * <p>Dispatches events on the main thread at their original pace, multiplied by the speed</p>
+     *
+     * @param speed    <b color="#EF6C00">1</b> for the original pace, larger values replay faster
+     * @param callback receives the result once the last event is dispatched
+     */
+    public void replay(@NonNull final SlideUp slideUp, final float speed, @NonNull final Callback callback) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Replay speed must be positive");
+        }
+        final View view = slideUp.getSliderView();
+        final Handler handler = new Handler(Looper.getMainLooper());
+        final long base = SystemClock.uptimeMillis();
+        final long[] processingTimes = new long[mEventCount];
+        handler.post(new Runnable() {
+            private int mNext;
+            
+            @Override
+            public void run() {
+                if (mNext == mEventCount) {
+                    callback.onReplayFinished(new Result(slideUp, processingTimes));
+                    return;
+                }
+                processingTimes[mNext] = dispatch(slideUp, view, mNext, base, speed);
+                mNext++;
+                long time = mNext == mEventCount ? SystemClock.uptimeMillis() : base + scale(mTimes[mNext], speed);
+                handler.postAtTime(this, time);
+            }
+        });
+    }
+    
+    /**
+     * @return time spent in {@link SlideUp#onTouch(View, MotionEvent)} <b>(in ns)</b>
+     */
+    private long dispatch(SlideUp slideUp, View view, int index, long base, float speed) {
+        MotionEvent event = obtain(index, base, speed);
+        long start = System.nanoTime();
+        slideUp.onTouch(view, event);
+        long time = System.nanoTime() - start;
+        event.recycle();
+        return time;
+    }
+    
+    private MotionEvent obtain(int index, long base, float speed) {
+        int action = mActions[index];
+        long eventTime = base + scale(mTimes[index], speed);
+        if (action == MotionEvent.ACTION_DOWN) {
+            mDownTime = eventTime;
+        }
+        int start = mHistoryStart[index];
+        int end = mHistoryStart[index + 1];
+        MotionEvent event;
+        if (start == end) {
+            event = MotionEvent.obtain(mDownTime, eventTime, action, mX[index], mY[index], 0);
+        } else {
+            event = MotionEvent.obtain(mDownTime, base + scale(mHistoryTimes[start], speed), action,
+                    mHistoryX[start], mHistoryY[start], 0);
+            for (int i = start + 1; i < end; i++) {
+                event.addBatch(base + scale(mHistoryTimes[i], speed), mHistoryX[i], mHistoryY[i], 1, 1, 0);
+            }
+            event.addBatch(eventTime, mX[index], mY[index], 1, 1, 0);
+        }
+        // raw coordinates stay in place, local ones are shifted
+        event.offsetLocation(-mOffsetX[index], -mOffsetY[index]);
+        return event;
+    }
+    
+    private static long scale(int time, float speed) {
+        return (long) (time / speed);
+    }
+    
+    /**
+     * <p>Processing times of replayed events and the state of the slider after the last one</p>
+     */
+    public static final class Result {
+        private final long[] mProcessingTimes;
+        private final boolean mVisible;
+        private final boolean mAnimationRunning;
+        private final int mCurrentAnchor;
+        private final float mTranslationX;
+        private final float mTranslationY;
+        
+        Result(SlideUp slideUp, long[] processingTimes) {
+            View view = slideUp.getSliderView();
+            mProcessingTimes = processingTimes;
+            mVisible = slideUp.isVisible();
+            mAnimationRunning = slideUp.isAnimationRunning();
+            mCurrentAnchor = slideUp.getCurrentAnchor();
+            mTranslationX = view.getTranslationX();
+            mTranslationY = view.getTranslationY();
+        }
+        
+        public int getEventCount() {
+            return mProcessingTimes.length;
+        }
+        
+        /**
+         * <p>Returns time spent handling the event <b>(in ns)</b></p>
+         */
+        public long getProcessingTimeNanos(int index) {
+            return mProcessingTimes[index];
+        }
+        
+        public long getTotalProcessingTimeNanos() {
+            long total = 0;
+            for (long time : mProcessingTimes) {
+                total += time;
+            }
+            return total;
+        }
+        
+        public long getMaxProcessingTimeNanos() {
+            long max = 0;
+            for (long time : mProcessingTimes) {
+                max = Math.max(max, time);
+            }
+            return max;
+        }
+        
+        public boolean isVisible() {
+            return mVisible;
+        }
+        
+        /**
+         * <p>Returns true if the slider was still settling after the last event</p>
+         */
+        public boolean isAnimationRunning() {
+            return mAnimationRunning;
+        }
+        
+        public int getCurrentAnchor() {
+            return mCurrentAnchor;
+        }
+        
+        public float getTranslationX() {
+            return mTranslationX;
+        }
+        
+        public float getTranslationY() {
+            return mTranslationY;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mancj.slideup;
+
+import android.os.Build;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Keeps the slider, and views bound to its progress, on hardware layers while it is dragged
+ * or settled, so moving them does not re-record and redraw their content every frame</p>
+ */
+class HardwareLayerHelper {
+    private final View[] mViews;
+    private final boolean[] mPromotedViews;
+    private boolean mPromoted;
+    
+    HardwareLayerHelper(View view, View... linkedViews) {
+        List<View> views = new ArrayList<>(linkedViews.length + 1);
+        views.add(view);
+        for (View linked : linkedViews) {
+            if (!views.contains(linked)) {
+                views.add(linked);
+            }
+        }
+        mViews = views.toArray(new View[views.size()]);
+        mPromotedViews = new boolean[mViews.length];
+    }
+    
+    void promote() {
+        if (mPromoted) return;
+        mPromoted = true;
+        for (int i = 0; i < mViews.length; i++) {
+            mPromotedViews[i] = promote(mViews[i]);
+        }
+    }
+    
+    void demote() {
+        if (!mPromoted) return;
+        mPromoted = false;
+        for (int i = 0; i < mViews.length; i++) {
+            if (mPromotedViews[i]) {
+                mPromotedViews[i] = false;
+                mViews[i].setLayerType(View.LAYER_TYPE_NONE, null);
+            }
+        }
+    }
+    
+    /**
+     * @return true if the layer was set
+     */
+    private static boolean promote(View view) {
+        if (view.getLayerType() != View.LAYER_TYPE_NONE) {
+            // layer is managed by someone else
+            return false;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP && view.isDirty()) {
+            // content is invalidating itself, a layer would be redrawn every frame anyway
+            return false;
+        }
+        view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        return true;
+    }
+}
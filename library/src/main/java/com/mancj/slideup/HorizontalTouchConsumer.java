@@ -3,52 +3,57 @@ package com.mancj.slideup;
 import android.view.MotionEvent;
 import android.view.View;
 
+import com.mancj.slideup.core.SlideEngine;
+
 /**
  * @author pa.gulko zTrap (12.07.2017)
  */
 class HorizontalTouchConsumer extends TouchConsumer {
-    private boolean mGoingToStart = false;
-    private boolean mGoingToEnd = false;
     
-    HorizontalTouchConsumer(SlideUpBuilder builder, LoggerNotifier notifier, AnimationProcessor animationProcessor) {
-        super(builder, notifier, animationProcessor);
+    HorizontalTouchConsumer(SlideUpBuilder builder, LoggerNotifier notifier, AnimationProcessor animationProcessor,
+                  SlideEngine slideEngine, TouchRegions touchRegions) {
+        super(builder, notifier, animationProcessor, slideEngine, touchRegions);
+    }
+    
+    @Override
+    void setTranslation(float translation) {
+        mBuilder.mSliderView.setTranslationX(translation);
     }
     
     boolean consumeEndToStart(View touchedView, MotionEvent event){
         float touchedArea = event.getX();
+        trackMovement(event);
         switch (event.getActionMasked()){
             case MotionEvent.ACTION_DOWN:
-                mViewWidth = mBuilder.mSliderView.getWidth();
-                mStartPositionX = event.getRawX();
-                mViewStartPositionX = mBuilder.mSliderView.getTranslationX();
-                mCanSlide = touchFromAlsoSlide(touchedView, event);
-                mCanSlide |= getStart() + mBuilder.mTouchableArea >= touchedArea;
+                mDragGesture.begin(pointerX(event), mBuilder.mSliderView.getTranslationX(), false);
+                mCanSlide = canSlideFrom(touchedView, event, getStart() + mBuilder.mTouchableArea >= touchedArea);
+                if (mCanSlide) {
+                    mNotifier.notifyGestureStarted();
+                }
                 break;
             case MotionEvent.ACTION_MOVE:
-                float difference = event.getRawX() - mStartPositionX;
-                float moveTo = mViewStartPositionX + difference;
-                float percents = moveTo * 100 / mBuilder.mSliderView.getWidth();
-                calculateDirection(event);
-                
-                if (moveTo > 0 && mCanSlide){
-                    mNotifier.notifyPercentChanged(percents);
-                    mBuilder.mSliderView.setTranslationX(moveTo);
+                if (mDragGesture.move(pointerX(event)) && mCanSlide){
+                    applyDrag(mDragGesture.getTranslation(), mDragGesture.getPercent());
                 }
                 break;
             case MotionEvent.ACTION_UP:
-                float slideAnimationFrom = mBuilder.mSliderView.getTranslationX();
-                if (slideAnimationFrom == mViewStartPositionX){
-                    return !Internal.isUpEventInView(mBuilder.mSliderView, event);
-                }
-                boolean scrollableAreaConsumed = mBuilder.mSliderView.getTranslationX() > mBuilder.mSliderView.getWidth() / 5;
-                
-                if (scrollableAreaConsumed && mGoingToEnd){
-                    mAnimationProcessor.setValuesAndStart(slideAnimationFrom, mBuilder.mSliderView.getWidth());
-                }else {
-                    mAnimationProcessor.setValuesAndStart(slideAnimationFrom, 0);
+                flushDrag();
+                float velocity = mDragGesture.toValue(computeVelocityX());
+                recycleVelocityTracker();
+                float translation = mBuilder.mSliderView.getTranslationX();
+                if (!mDragGesture.isMoved(translation)){
+                    mNotifier.notifyGestureFinished();
+                    return !isUpEventInView(event);
                 }
+                settle(mDragGesture.toValue(translation), velocity);
+                mNotifier.notifyGestureFinished();
                 mCanSlide = true;
                 break;
+            case MotionEvent.ACTION_CANCEL:
+                flushDrag();
+                mNotifier.notifyGestureFinished();
+                recycleVelocityTracker();
+                break;
         }
         mPrevPositionY = event.getRawY();
         mPrevPositionX = event.getRawX();
@@ -57,47 +62,41 @@ class HorizontalTouchConsumer extends TouchConsumer {
     
     boolean consumeStartToEnd(View touchedView, MotionEvent event){
         float touchedArea = event.getX();
+        trackMovement(event);
         switch (event.getActionMasked()){
             case MotionEvent.ACTION_DOWN:
-                mViewWidth = mBuilder.mSliderView.getWidth();
-                mStartPositionX = event.getRawX();
-                mViewStartPositionX = mBuilder.mSliderView.getTranslationX();
-                mCanSlide = touchFromAlsoSlide(touchedView, event);
-                mCanSlide |= getEnd() - mBuilder.mTouchableArea >= touchedArea;
+                mDragGesture.begin(pointerX(event), mBuilder.mSliderView.getTranslationX(), true);
+                mCanSlide = canSlideFrom(touchedView, event, getEnd() - mBuilder.mTouchableArea >= touchedArea);
+                if (mCanSlide) {
+                    mNotifier.notifyGestureStarted();
+                }
                 break;
             case MotionEvent.ACTION_MOVE:
-                float difference = event.getRawX() - mStartPositionX;
-                float moveTo = mViewStartPositionX + difference;
-                float percents = moveTo * 100 / -mBuilder.mSliderView.getWidth();
-                calculateDirection(event);
-                
-                if (moveTo < 0 && mCanSlide){
-                    mNotifier.notifyPercentChanged(percents);
-                    mBuilder.mSliderView.setTranslationX(moveTo);
+                if (mDragGesture.move(pointerX(event)) && mCanSlide){
+                    applyDrag(mDragGesture.getTranslation(), mDragGesture.getPercent());
                 }
                 break;
             case MotionEvent.ACTION_UP:
-                float slideAnimationFrom = -mBuilder.mSliderView.getTranslationX();
-                if (slideAnimationFrom == mViewStartPositionX){
-                    return !Internal.isUpEventInView(mBuilder.mSliderView, event);
-                }
-                boolean scrollableAreaConsumed = mBuilder.mSliderView.getTranslationX() < -mBuilder.mSliderView.getHeight() / 5;
-                
-                if (scrollableAreaConsumed && mGoingToStart){
-                    mAnimationProcessor.setValuesAndStart(slideAnimationFrom, mBuilder.mSliderView.getWidth());
-                }else {
-                    mAnimationProcessor.setValuesAndStart(slideAnimationFrom, 0);
+                flushDrag();
+                float velocity = mDragGesture.toValue(computeVelocityX());
+                recycleVelocityTracker();
+                float translation = mBuilder.mSliderView.getTranslationX();
+                if (!mDragGesture.isMoved(translation)){
+                    mNotifier.notifyGestureFinished();
+                    return !isUpEventInView(event);
                 }
+                settle(mDragGesture.toValue(translation), velocity);
+                mNotifier.notifyGestureFinished();
                 mCanSlide = true;
                 break;
+            case MotionEvent.ACTION_CANCEL:
+                flushDrag();
+                mNotifier.notifyGestureFinished();
+                recycleVelocityTracker();
+                break;
         }
         mPrevPositionY = event.getRawY();
         mPrevPositionX = event.getRawX();
         return true;
     }
-
-    private void calculateDirection(MotionEvent event) {
-        mGoingToStart = mPrevPositionX - event.getRawX() > 0;
-        mGoingToEnd = mPrevPositionX - event.getRawX() < 0;
-    }
 }
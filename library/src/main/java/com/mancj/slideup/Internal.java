@@ -8,7 +8,6 @@ import android.view.View;
  * @author pa.gulko zTrap (12.07.2017)
  */
 class Internal {
-    private static Rect sRect = new Rect();
     
     static void checkNonNull(Object obj, String message) {
         if (obj == null) {
@@ -16,8 +15,8 @@ class Internal {
         }
     }
     
-    static boolean isUpEventInView(View view, MotionEvent event){
-        view.getHitRect(sRect);
-        return sRect.contains((int) event.getRawX(), (int) event.getRawY());
+    static boolean isUpEventInView(View view, MotionEvent event, Rect outRect){
+        view.getHitRect(outRect);
+        return outRect.contains((int) event.getRawX(), (int) event.getRawY());
     }
 }
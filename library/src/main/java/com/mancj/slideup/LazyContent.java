@@ -0,0 +1,101 @@
+package com.mancj.slideup;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewStub;
+
+/**
+ * <p>Content of a lazy slider. It is inflated when the main thread becomes idle after the next frame
+ * of the window, so the inflation does not delay the first frame of the screen</p>
+ */
+class LazyContent implements MessageQueue.IdleHandler {
+    private final ViewStub mStub;
+    private final ViewGroup mParent;
+    private final int mLayoutResId;
+    
+    private Callback mCallback;
+    private boolean mTracing;
+    private boolean mScheduled;
+    private View mView;
+    
+    interface Callback {
+    
+        /**
+         * <p>Called on the main thread once the content is inflated and attached to its parent</p>
+         */
+        void onContentInflated(View view);
+    }
+    
+    LazyContent(ViewStub stub) {
+        mStub = stub;
+        mParent = null;
+        mLayoutResId = 0;
+    }
+    
+    LazyContent(ViewGroup parent, int layoutResId) {
+        mStub = null;
+        mParent = parent;
+        mLayoutResId = layoutResId;
+    }
+    
+    /**
+     * <p>Returns view already placed in the hierarchy, which stands for the content until it is inflated</p>
+     */
+    View getPlaceholder() {
+        return mStub != null ? mStub : mParent;
+    }
+    
+    /**
+     * <p>Returns parent the content will be attached to</p>
+     */
+    ViewParent getParent() {
+        return mStub != null ? mStub.getParent() : mParent;
+    }
+    
+    void schedule(Callback callback, boolean tracing) {
+        if (mScheduled) return;
+        mScheduled = true;
+        mCallback = callback;
+        mTracing = tracing;
+        // posted runnables of a detached view run at its first traversal, so the idle handler
+        // is added once the frame is being drawn, and runs after it
+        getPlaceholder().post(new Runnable() {
+            @Override
+            public void run() {
+                Looper.myQueue().addIdleHandler(LazyContent.this);
+            }
+        });
+    }
+    
+    @Override
+    public boolean queueIdle() {
+        if (mTracing) {
+            SlideTrace.beginSection(SlideTrace.INFLATE);
+        }
+        try {
+            inflate();
+        } finally {
+            if (mTracing) {
+                SlideTrace.endSection();
+            }
+        }
+        return false;
+    }
+    
+    private void inflate() {
+        if (mView != null) return;
+        if (mStub != null) {
+            // stub was removed with its hierarchy before the main thread became idle
+            if (mStub.getParent() == null) return;
+            mView = mStub.inflate();
+        } else {
+            mView = LayoutInflater.from(mParent.getContext()).inflate(mLayoutResId, mParent, false);
+            mParent.addView(mView);
+        }
+        mCallback.onContentInflated(mView);
+    }
+}
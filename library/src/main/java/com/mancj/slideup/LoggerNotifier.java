@@ -8,4 +8,8 @@ interface LoggerNotifier {
     void notifyPercentChanged(float percent);
     
     void notifyVisibilityChanged(int visibility);
+    
+    void notifyGestureStarted();
+    
+    void notifyGestureFinished();
 }
@@ -0,0 +1,26 @@
+package com.mancj.slideup;
+
+import android.view.View;
+
+/**
+ * <p>Runs the callback only when the view was laid out with a different size,
+ * or at a different top if the top is tracked too</p>
+ */
+class OnSizeChangeListener implements View.OnLayoutChangeListener {
+    private final Runnable mRunnable;
+    private final boolean mTrackTop;
+    
+    OnSizeChangeListener(Runnable runnable, boolean trackTop) {
+        mRunnable = runnable;
+        mTrackTop = trackTop;
+    }
+    
+    @Override
+    public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                               int oldLeft, int oldTop, int oldRight, int oldBottom) {
+        if (right - left != oldRight - oldLeft || bottom - top != oldBottom - oldTop
+                || mTrackTop && top != oldTop) {
+            mRunnable.run();
+        }
+    }
+}
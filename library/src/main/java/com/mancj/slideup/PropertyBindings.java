@@ -0,0 +1,134 @@
+package com.mancj.slideup;
+
+import android.util.Property;
+import android.view.View;
+
+import java.util.List;
+
+/**
+ * <p>Maps slide percents onto properties of other views in a single pass. Well known {@link View}
+ * properties are written through their setters, so applying a binding does not box the value</p>
+ */
+class PropertyBindings {
+    private static final int CUSTOM = 0;
+    private static final int ALPHA = 1;
+    private static final int TRANSLATION_X = 2;
+    private static final int TRANSLATION_Y = 3;
+    private static final int SCALE_X = 4;
+    private static final int SCALE_Y = 5;
+    private static final int ROTATION = 6;
+    
+    private final int mCount;
+    private final View[] mTargets;
+    private final Property<View, Float>[] mProperties;
+    private final int[] mKinds;
+    private final float[] mFromPercent;
+    private final float[] mPercentRange;
+    private final float[] mFromValue;
+    private final float[] mValueRange;
+    private final float[] mLastValue;
+    
+    /**
+     * <p>Describes a single binding, used by {@link SlideUpBuilder} only</p>
+     */
+    static class Binding {
+        final View mTarget;
+        final Property<View, Float> mProperty;
+        final float mFromPercent;
+        final float mToPercent;
+        final float mFromValue;
+        final float mToValue;
+        
+        Binding(View target, Property<View, Float> property, float fromPercent, float toPercent,
+                float fromValue, float toValue) {
+            mTarget = target;
+            mProperty = property;
+            mFromPercent = fromPercent;
+            mToPercent = toPercent;
+            mFromValue = fromValue;
+            mToValue = toValue;
+        }
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    PropertyBindings(List<Binding> bindings) {
+        mCount = bindings.size();
+        mTargets = new View[mCount];
+        mProperties = new Property[mCount];
+        mKinds = new int[mCount];
+        mFromPercent = new float[mCount];
+        mPercentRange = new float[mCount];
+        mFromValue = new float[mCount];
+        mValueRange = new float[mCount];
+        mLastValue = new float[mCount];
+        for (int i = 0; i < mCount; i++) {
+            Binding binding = bindings.get(i);
+            mTargets[i] = binding.mTarget;
+            mProperties[i] = binding.mProperty;
+            mKinds[i] = kindOf(binding.mProperty);
+            mFromPercent[i] = binding.mFromPercent;
+            mPercentRange[i] = binding.mToPercent - binding.mFromPercent;
+            mFromValue[i] = binding.mFromValue;
+            mValueRange[i] = binding.mToValue - binding.mFromValue;
+            mLastValue[i] = Float.NaN;
+        }
+    }
+    
+    /**
+     * <p>Returns target views of the bindings, a view bound to several properties is repeated</p>
+     */
+    View[] getTargets() {
+        return mTargets;
+    }
+    
+    /**
+     * @param percent percents of complete slide <b color="#EF6C00">(100 = HIDDEN, 0 = SHOWED)</b>
+     */
+    void apply(float percent) {
+        for (int i = 0; i < mCount; i++) {
+            float fraction = (percent - mFromPercent[i]) / mPercentRange[i];
+            fraction = fraction > 1 ? 1 : fraction < 0 ? 0 : fraction;
+            float value = mFromValue[i] + mValueRange[i] * fraction;
+            if (value == mLastValue[i]) continue;
+            mLastValue[i] = value;
+            set(i, value);
+        }
+    }
+    
+    private void set(int i, float value) {
+        View target = mTargets[i];
+        switch (mKinds[i]) {
+            case ALPHA:
+                target.setAlpha(value);
+                break;
+            case TRANSLATION_X:
+                target.setTranslationX(value);
+                break;
+            case TRANSLATION_Y:
+                target.setTranslationY(value);
+                break;
+            case SCALE_X:
+                target.setScaleX(value);
+                break;
+            case SCALE_Y:
+                target.setScaleY(value);
+                break;
+            case ROTATION:
+                target.setRotation(value);
+                break;
+            default:
+                mProperties[i].set(target, value);
+                break;
+        }
+    }
+    
+    private static int kindOf(Property<View, Float> property) {
+        if (property == View.ALPHA) return ALPHA;
+        if (property == View.TRANSLATION_X) return TRANSLATION_X;
+        if (property == View.TRANSLATION_Y) return TRANSLATION_Y;
+        if (property == View.SCALE_X) return SCALE_X;
+        if (property == View.SCALE_Y) return SCALE_Y;
+        if (property == View.ROTATION) return ROTATION;
+        return CUSTOM;
+    }
+}
@@ -0,0 +1,62 @@
+package com.mancj.slideup;
+
+import android.animation.TimeInterpolator;
+import android.annotation.TargetApi;
+import android.graphics.drawable.ColorDrawable;
+import android.os.Build;
+import android.view.View;
+
+/**
+ * <p>Dims the host view proportionally to the visible part of the slider. Dim is a single color
+ * drawable in the overlay of the host, so it costs one draw call and is not drawn at all while
+ * transparent. Requires <b>API 18</b>, nothing is drawn on older devices</p>
+ */
+class Scrim implements View.OnLayoutChangeListener {
+    private final View mHost;
+    private final ColorDrawable mDrawable;
+    private final int mMaxAlpha;
+    private final TimeInterpolator mCurve;
+    private int mAlpha = -1;
+    
+    /**
+     * @param maxAlpha alpha of the scrim while the slider is shown, multiplied by the alpha of the color
+     * @param curve    maps visible fraction of the slider to the fraction of max alpha, or null for linear
+     */
+    Scrim(View host, int color, float maxAlpha, TimeInterpolator curve) {
+        mHost = host;
+        mDrawable = new ColorDrawable(color);
+        mMaxAlpha = Math.round(maxAlpha * 255);
+        mCurve = curve;
+    }
+    
+    static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    }
+    
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    void attach() {
+        setProgress(0);
+        mDrawable.setBounds(0, 0, mHost.getWidth(), mHost.getHeight());
+        mHost.getOverlay().add(mDrawable);
+        mHost.addOnLayoutChangeListener(this);
+    }
+    
+    /**
+     * @param visible visible fraction of the slider <b color="#EF6C00">(0 = HIDDEN, 1 = SHOWED)</b>
+     */
+    void setProgress(float visible) {
+        float fraction = mCurve == null ? visible : mCurve.getInterpolation(visible);
+        int alpha = Math.round(mMaxAlpha * fraction);
+        alpha = alpha > 255 ? 255 : alpha < 0 ? 0 : alpha;
+        if (alpha == mAlpha) return;
+        mAlpha = alpha;
+        // invalidates the host, a transparent color drawable skips drawing
+        mDrawable.setAlpha(alpha);
+    }
+    
+    @Override
+    public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                               int oldLeft, int oldTop, int oldRight, int oldBottom) {
+        mDrawable.setBounds(0, 0, right - left, bottom - top);
+    }
+}
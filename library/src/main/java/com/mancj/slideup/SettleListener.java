@@ -0,0 +1,18 @@
+package com.mancj.slideup;
+
+/**
+ * <p>Receives values of the settle animation, whichever engine produces them</p>
+ */
+interface SettleListener {
+    
+    void onSettleStart(float to);
+    
+    void onSettleUpdate(float value);
+    
+    void onSettleEnd();
+    
+    /**
+     * @return true if values of every frame are needed, false if the target value is enough
+     */
+    boolean needsFrameUpdates();
+}
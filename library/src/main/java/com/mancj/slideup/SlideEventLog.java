@@ -0,0 +1,173 @@
+package com.mancj.slideup;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * <p>Fixed size ring buffer of slider events, oldest events are overwritten.
+ * Events are stored in primitive arrays, so recording never allocates</p>
+ */
+public final class SlideEventLog {
+    /**
+     * Touch event was handled, {@link #getArgument(int)} is the masked action
+     */
+    public static final int TYPE_TOUCH = 0;
+    /**
+     * Settle was started, {@link #getTarget(int)} is the value it goes to
+     */
+    public static final int TYPE_SETTLE_START = 1;
+    public static final int TYPE_SETTLE_END = 2;
+    /**
+     * Slide listener at {@link #getListener(int)} was notified
+     */
+    public static final int TYPE_SLIDE = 3;
+    /**
+     * Visibility listener at {@link #getListener(int)} was notified, {@link #getArgument(int)} is the visibility
+     */
+    public static final int TYPE_VISIBILITY = 4;
+    /**
+     * Anchor listener at {@link #getListener(int)} was notified, {@link #getArgument(int)} is the anchor
+     */
+    public static final int TYPE_ANCHOR = 5;
+    /**
+     * Metrics listener at {@link #getListener(int)} was notified
+     */
+    public static final int TYPE_METRICS = 6;
+    
+    private static final String[] TYPE_NAMES = {
+            "touch", "settleStart", "settleEnd", "onSlide", "onVisibilityChanged", "onAnchorChanged", "onMetrics"
+    };
+    
+    private final long[] mTimes;
+    private final byte[] mTypes;
+    private final int[] mArguments;
+    private final short[] mListeners;
+    private final float[] mValues;
+    private final float[] mPercents;
+    private final float[] mTargets;
+    private int mNext;
+    private int mSize;
+    
+    SlideEventLog(int capacity) {
+        mTimes = new long[capacity];
+        mTypes = new byte[capacity];
+        mArguments = new int[capacity];
+        mListeners = new short[capacity];
+        mValues = new float[capacity];
+        mPercents = new float[capacity];
+        mTargets = new float[capacity];
+    }
+    
+    /**
+     * @param listener index of the notified listener or -1
+     * @param value    current animation value of the slider
+     */
+    void record(int type, int argument, int listener, float value, float percent, float target) {
+        int i = mNext;
+        mTimes[i] = System.nanoTime();
+        mTypes[i] = (byte) type;
+        mArguments[i] = argument;
+        mListeners[i] = (short) listener;
+        mValues[i] = value;
+        mPercents[i] = percent;
+        mTargets[i] = target;
+        mNext = i + 1 == mTimes.length ? 0 : i + 1;
+        if (mSize < mTimes.length) {
+            mSize++;
+        }
+    }
+    
+    void clear() {
+        mNext = 0;
+        mSize = 0;
+    }
+    
+    /**
+     * <p>Returns a copy of recorded events, ordered from the oldest one</p>
+     */
+    public SlideEventLog snapshot() {
+        SlideEventLog copy = new SlideEventLog(Math.max(mSize, 1));
+        for (int i = 0; i < mSize; i++) {
+            int from = index(i);
+            copy.mTimes[i] = mTimes[from];
+            copy.mTypes[i] = mTypes[from];
+            copy.mArguments[i] = mArguments[from];
+            copy.mListeners[i] = mListeners[from];
+            copy.mValues[i] = mValues[from];
+            copy.mPercents[i] = mPercents[from];
+            copy.mTargets[i] = mTargets[from];
+        }
+        copy.mSize = mSize;
+        copy.mNext = mSize % copy.mTimes.length;
+        return copy;
+    }
+    
+    /**
+     * <p>Writes recorded events, one per line, ordered from the oldest one</p>
+     */
+    public void dump(PrintWriter writer) {
+        for (int i = 0; i < mSize; i++) {
+            writer.println(String.format(Locale.US, "%d %-19s arg=%d listener=%d value=%.1f percent=%.1f target=%.1f",
+                    getTime(i), TYPE_NAMES[getType(i)], getArgument(i), getListener(i),
+                    getValue(i), getPercent(i), getTarget(i)));
+        }
+        writer.flush();
+    }
+    
+    /**
+     * <p>Returns count of recorded events</p>
+     */
+    public int size() {
+        return mSize;
+    }
+    
+    /**
+     * <p>Returns time of the event <b>(in ns)</b>, in the {@link System#nanoTime()} time base</p>
+     *
+     * @param index index of the event, 0 is the oldest one
+     */
+    public long getTime(int index) {
+        return mTimes[index(index)];
+    }
+    
+    public int getType(int index) {
+        return mTypes[index(index)];
+    }
+    
+    public int getArgument(int index) {
+        return mArguments[index(index)];
+    }
+    
+    /**
+     * <p>Returns index of the notified listener, or <b color="#EF6C00">-1</b> for events without a listener</p>
+     */
+    public int getListener(int index) {
+        return mListeners[index(index)];
+    }
+    
+    /**
+     * <p>Returns animation value of the slider <b color="#EF6C00">(0 = SHOWED, positive values to HIDDEN)</b></p>
+     */
+    public float getValue(int index) {
+        return mValues[index(index)];
+    }
+    
+    /**
+     * <p>Returns percents of complete slide <b color="#EF6C00">(100 = HIDDEN, 0 = SHOWED)</b></p>
+     */
+    public float getPercent(int index) {
+        return mPercents[index(index)];
+    }
+    
+    public float getTarget(int index) {
+        return mTargets[index(index)];
+    }
+    
+    private int index(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of event log size " + mSize);
+        }
+        int i = mNext - mSize + index;
+        return i < 0 ? i + mTimes.length : i;
+    }
+}
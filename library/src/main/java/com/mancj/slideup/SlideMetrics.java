@@ -0,0 +1,89 @@
+package com.mancj.slideup;
+
+/**
+ * <p>Frame timing of a single interaction with the slider:
+ * a gesture together with the settle following it, or a settle alone</p>
+ */
+public final class SlideMetrics {
+    private final boolean mGesture;
+    private final int mFrameCount;
+    private final int mLateFrameCount;
+    private final int mDroppedFrameCount;
+    private final long mMaxFrameTimeNanos;
+    private final long mInputLatencyNanos;
+    private final long mDurationNanos;
+    
+    SlideMetrics(boolean gesture, int frameCount, int lateFrameCount, int droppedFrameCount,
+                 long maxFrameTimeNanos, long inputLatencyNanos, long durationNanos) {
+        mGesture = gesture;
+        mFrameCount = frameCount;
+        mLateFrameCount = lateFrameCount;
+        mDroppedFrameCount = droppedFrameCount;
+        mMaxFrameTimeNanos = maxFrameTimeNanos;
+        mInputLatencyNanos = inputLatencyNanos;
+        mDurationNanos = durationNanos;
+    }
+    
+    /**
+     * <p>Returns true if the slider was dragged by the user, false for a settle started from code</p>
+     */
+    public boolean isGesture() {
+        return mGesture;
+    }
+    
+    /**
+     * <p>Returns count of frames produced during the interaction</p>
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+    
+    /**
+     * <p>Returns count of frames which took longer than a single refresh interval of the display</p>
+     */
+    public int getLateFrameCount() {
+        return mLateFrameCount;
+    }
+    
+    /**
+     * <p>Returns count of refresh intervals of the display which were skipped without a new frame</p>
+     */
+    public int getDroppedFrameCount() {
+        return mDroppedFrameCount;
+    }
+    
+    /**
+     * <p>Returns the longest time between two consecutive frames <b>(in ns)</b></p>
+     */
+    public long getMaxFrameTimeNanos() {
+        return mMaxFrameTimeNanos;
+    }
+    
+    /**
+     * <p>Returns time from the touch event which first moved the slider
+     * till the frame showing this move <b>(in ns)</b>, or <b color="#EF6C00">-1</b> if unknown</p>
+     */
+    public long getInputLatencyNanos() {
+        return mInputLatencyNanos;
+    }
+    
+    /**
+     * <p>Returns time from the first till the last frame of the interaction <b>(in ns)</b></p>
+     */
+    public long getDurationNanos() {
+        return mDurationNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return "SlideMetrics{" +
+                "gesture=" + mGesture +
+                ", frames=" + mFrameCount +
+                ", late=" + mLateFrameCount +
+                ", dropped=" + mDroppedFrameCount +
+                ", maxFrameTimeNanos=" + mMaxFrameTimeNanos +
+                ", inputLatencyNanos=" + mInputLatencyNanos +
+                ", durationNanos=" + mDurationNanos +
+                '}';
+    }
+}
@@ -0,0 +1,101 @@
+package com.mancj.slideup;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+
+import java.lang.reflect.Method;
+
+/**
+ * <p>Sections and counters for system traces. Callers check the tracing flag of the builder first,
+ * so nothing is done when tracing is off. Sections and counters are skipped below <b>API 18</b></p>
+ */
+class SlideTrace {
+    static final String ON_TOUCH = "SlideUp#onTouch";
+    static final String CONSUME_MOVE = "SlideUp#consumeMove";
+    static final String CONSUME_UP = "SlideUp#consumeUp";
+    static final String DRAG_FRAME = "SlideUp#dragFrame";
+    static final String SETTLE_UPDATE = "SlideUp#onSettleUpdate";
+    static final String NOTIFY_SLIDE = "SlideUp#notifySlideListeners";
+    static final String GLOBAL_LAYOUT = "SlideUp#onGlobalLayout";
+    static final String INFLATE = "SlideUp#inflate";
+    
+    private static final boolean SUPPORTED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    
+    private static boolean sCounterResolved;
+    private static Method sSetCounter;
+    private static Method sTraceCounter;
+    private static Long sTraceTagApp;
+    private static final Object[] sSetCounterArgs = new Object[2];
+    private static final Object[] sTraceCounterArgs = new Object[3];
+    
+    private SlideTrace() {
+    }
+    
+    static void beginSection(String name) {
+        if (SUPPORTED) {
+            beginSectionApi18(name);
+        }
+    }
+    
+    static void endSection() {
+        if (SUPPORTED) {
+            endSectionApi18();
+        }
+    }
+    
+    /**
+     * <p>Counters are public since <b>API 29</b> only, older versions are reached by reflection
+     * and the counter is silently skipped if it fails. Argument arrays are reused, because counters
+     * are set on the main thread only, and values in range [-128, 127] are boxed from the cache
+     * of {@link Long} and {@link Integer}, so counters of percents and phases don't allocate
+     * in the traced frames. Other values allocate their box</p>
+     */
+    static void setCounter(String name, int value) {
+        if (!SUPPORTED) return;
+        resolveCounter();
+        try {
+            if (sSetCounter != null) {
+                Object[] args = sSetCounterArgs;
+                args[0] = name;
+                args[1] = Long.valueOf(value);
+                sSetCounter.invoke(null, args);
+            } else if (sTraceCounter != null) {
+                Object[] args = sTraceCounterArgs;
+                args[0] = sTraceTagApp;
+                args[1] = name;
+                args[2] = Integer.valueOf(value);
+                sTraceCounter.invoke(null, args);
+            }
+        } catch (Exception e) {
+            sSetCounter = null;
+            sTraceCounter = null;
+        }
+    }
+    
+    private static void resolveCounter() {
+        if (sCounterResolved) return;
+        sCounterResolved = true;
+        try {
+            sSetCounter = Trace.class.getMethod("setCounter", String.class, long.class);
+            return;
+        } catch (Exception ignored) {
+        }
+        try {
+            // boxed once, the tag is out of range of the box cache
+            sTraceTagApp = Trace.class.getField("TRACE_TAG_APP").getLong(null);
+            sTraceCounter = Trace.class.getMethod("traceCounter", long.class, String.class, int.class);
+        } catch (Exception ignored) {
+        }
+    }
+    
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void beginSectionApi18(String name) {
+        Trace.beginSection(name);
+    }
+    
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void endSectionApi18() {
+        Trace.endSection();
+    }
+}
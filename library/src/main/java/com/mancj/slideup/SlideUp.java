@@ -4,28 +4,41 @@ import android.animation.Animator;
 import android.animation.TimeInterpolator;
 import android.animation.ValueAnimator;
 import android.content.Context;
+import android.os.Build;
 import android.os.Bundle;
 import android.os.IBinder;
 import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewTreeObserver;
+import android.view.animation.AnimationUtils;
 import android.view.inputmethod.InputMethodManager;
 
+import com.mancj.slideup.core.ListenerFanout;
+import com.mancj.slideup.core.SlideEngine;
+import com.mancj.slideup.core.SnapEngine;
+
+import java.io.PrintWriter;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
 
 import static android.view.Gravity.BOTTOM;
 import static android.view.Gravity.END;
 import static android.view.Gravity.START;
 import static android.view.Gravity.TOP;
 import static android.view.View.GONE;
+import static android.view.View.INVISIBLE;
 import static android.view.View.VISIBLE;
 import static com.mancj.slideup.SlideUp.State.HIDDEN;
 import static com.mancj.slideup.SlideUp.State.SHOWED;
 
-public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpdateListener, Animator.AnimatorListener, LoggerNotifier {
+public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpdateListener, Animator.AnimatorListener, LoggerNotifier,
+        SettleListener, FrameTimingTracker.Callback, LazyContent.Callback {
     private final static String TAG = SlideUp.class.getSimpleName();
     
     final static String KEY_START_GRAVITY = TAG + "_start_gravity";
@@ -36,13 +49,63 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
     final static String KEY_HIDE_SOFT_INPUT = TAG + "_hide_soft_input";
     final static String KEY_STATE_SAVED = TAG + "_state_saved";
     
+    /**
+     * <p>Engines running animations of {@link #show()}, {@link #hide()} and settling after gestures,
+     * unless a spring is used</p>
+     */
+    public enum AnimationBackend {
+        
+        /**
+         * {@link ValueAnimator}, values are applied on the main thread every frame
+         */
+        VALUE_ANIMATOR,
+        
+        /**
+         * {@link android.view.ViewPropertyAnimator} of the slider, which does not run any code of the slider
+         * per frame. Used only while nothing observes every frame: no slide listeners, scrim, bindings,
+         * group, logging or tracing, otherwise {@link #VALUE_ANIMATOR} is used.
+         * <p>It only saves the per frame work of the slider. The animation still runs on the main thread,
+         * because the end listener keeps it off the render thread, so it stalls with the main thread</p>
+         */
+        VIEW_PROPERTY_ANIMATOR,
+        
+        /**
+         * {@link android.view.Choreographer} frame callback computing values directly, since <b>API 16</b>,
+         * otherwise {@link #VALUE_ANIMATOR} is used
+         */
+        CHOREOGRAPHER
+    }
+    
+    /**
+     * <p>Ways to hide the slider once it rests in the hidden state</p>
+     */
+    public enum HideMode {
+        
+        /**
+         * {@link View#GONE}, parents of the slider are laid out again on every show and hide
+         */
+        GONE,
+        
+        /**
+         * {@link View#INVISIBLE}, the slider keeps its place in the layout and ignores touches
+         */
+        INVISIBLE,
+        
+        /**
+         * Slider stays {@link View#VISIBLE} at its hidden translation, with drawing skipped since <b>API 18</b>.
+         * It keeps its display lists, but still receives touches at the hidden position, so it fits
+         * sliders moved past the edge of their parent
+         */
+        TRANSLATION
+    }
+    
     /**
      * <p>Available start states</p>
      */
     public enum State {
         
         /**
-         * State hidden is equal {@link View#GONE}
+         * State hidden is equal {@link View#GONE}, or other visibility of the {@link HideMode}
          */
         HIDDEN,
         
@@ -52,12 +115,36 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
         SHOWED
     }
     
+    /**
+     * <p>Motion phases of the slider, side effects happen on transitions between them only</p>
+     */
+    enum Phase {
+        HIDDEN,
+        DRAGGING,
+        SETTLING,
+        /**
+         * Resting at an anchor between shown and hidden states
+         */
+        ANCHORED,
+        SHOWN
+    }
+    
     @IntDef(value = {START, END, TOP, BOTTOM})
     @Retention(RetentionPolicy.SOURCE)
     @interface StartVector {
     }
     
     private State mCurrentState;
+    private Phase mPhase;
+    private InputMethodManager mInputMethodManager;
+    private HardwareLayerHelper mHardwareLayerHelper;
+    private boolean mGestureInProgress;
+    private boolean mSettleInProgress;
+    private boolean mSettleInterrupted;
+    private float mSettleVelocity;
+    private float mLastSettleValue;
+    private long mLastSettleTime;
+    private boolean mNestedDragInProgress;
     
     private float mViewHeight;
     private float mViewWidth;
@@ -69,6 +156,35 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
     
     private AnimationProcessor mAnimationProcessor;
     
+    private Listener.Slide[] mSlideListeners;
+    private Listener.Visibility[] mVisibilityListeners;
+    private Listener.Anchor[] mAnchorListeners;
+    private Listener.Metrics[] mMetricsListeners;
+    private FrameTimingTracker mFrameTimingTracker;
+    
+    private SnapEngine mSnapEngine;
+    private SlideEngine mSlideEngine;
+    private TouchRegions mTouchRegions;
+    
+    private SlideUpGroup mGroup;
+    private FrameDriver mFrameDriver;
+    private boolean mTouchableAreaAuto;
+    private int mCurrentAnchor = -1;
+    private String mTracePercentCounter;
+    private float mPercent;
+    private SlideEventLog mEventLog;
+    private GestureRecorder mGestureRecorder;
+    private Scrim mScrim;
+    private PropertyBindings mPropertyBindings;
+    private String mTracePhaseCounter;
+    
+    private Runnable mPendingMove;
+    private State mPendingState;
+    private boolean mWarmingUp;
+    private float mWarmUpAlpha;
+    private TranslationHider mTranslationHider;
+    private final SlideDelivery mSlideDelivery = new SlideDelivery();
+    
     /**
      * <p>Interface to listen to all handled events taking place in the slider</p>
      */
@@ -85,78 +201,268 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
         interface Visibility extends Listener {
             
             /**
-             * @param visibility (<b>GONE</b> or <b>VISIBLE</b>)
+             * @param visibility (<b>GONE</b> or <b>VISIBLE</b>), GONE is reported for every {@link HideMode}
              */
             void onVisibilityChanged(int visibility);
         }
         
         interface Events extends Visibility, Slide {
         }
+        
+        interface Anchor extends Listener {
+            
+            /**
+             * @param anchor index of the anchor the slider rests at <b color="#EF6C00">(0 = SHOWED, last = collapsed)</b>
+             */
+            void onAnchorChanged(int anchor);
+        }
+        
+        interface Metrics extends Listener {
+            
+            /**
+             * <p>Called on the main thread once a gesture and its settle, or a settle alone, is over.
+             * Available since <b>API 16</b>, never called on older devices</p>
+             *
+             * @param metrics frame timing of the finished interaction
+             */
+            void onMetrics(SlideMetrics metrics);
+        }
     }
     
     SlideUp(SlideUpBuilder builder) {
         mBuilder = builder;
+        mSnapEngine = new SnapEngine(mBuilder.mAnchors, mBuilder.mPeekHeight);
+        mSlideEngine = new SlideEngine(mSnapEngine);
+        if (mBuilder.mSliderView == null) {
+            mBuilder.mLazyContent.schedule(this, mBuilder.mTracing);
+        } else {
+            init();
+        }
+    }
+    
+    @Override
+    public final void onContentInflated(View view) {
+        mBuilder.mSliderView = view;
+        if (isCollapsed() && view.isHardwareAccelerated() && !isBindingTarget(view)) {
+            startWarmUp();
+        }
         init();
     }
     
     private void init() {
+        if (mBuilder.mTracing) {
+            // counters of different sliders must not mix in a trace
+            String id = Integer.toHexString(System.identityHashCode(this));
+            mTracePercentCounter = "SlideUp@" + id + " percent";
+            mTracePhaseCounter = "SlideUp@" + id + " phase";
+        }
+        partitionListeners();
+        if (mBuilder.mScrimHost != null && Scrim.isSupported()) {
+            mScrim = new Scrim(mBuilder.mScrimHost, mBuilder.mScrimColor, mBuilder.mScrimMaxAlpha, mBuilder.mScrimCurve);
+            mScrim.attach();
+        }
+        if (!mBuilder.mBindings.isEmpty()) {
+            mPropertyBindings = new PropertyBindings(mBuilder.mBindings);
+            mHardwareLayerHelper = new HardwareLayerHelper(mBuilder.mSliderView, mPropertyBindings.getTargets());
+        } else {
+            mHardwareLayerHelper = new HardwareLayerHelper(mBuilder.mSliderView);
+        }
+        mTouchRegions = new TouchRegions(mBuilder.mSliderView, mBuilder.mDragHandles, mBuilder.mDragHandleRects,
+                mBuilder.mTouchExclusions);
+        mBuilder.mSliderView.addOnLayoutChangeListener(mTouchRegions);
         mBuilder.mSliderView.setOnTouchListener(this);
+        if (mBuilder.mSliderView instanceof SlideUpNestedScrollLayout) {
+            ((SlideUpNestedScrollLayout) mBuilder.mSliderView).setSlideUp(this);
+        }
         if(mBuilder.mAlsoScrollView != null) {
             mBuilder.mAlsoScrollView.setOnTouchListener(this);
         }
         createAnimation();
+        createConsumers();
+        mTouchableAreaAuto = mBuilder.mTouchableArea == 0;
+        // hidden value of a slider from the top depends on its top offset
+        mBuilder.mSliderView.addOnLayoutChangeListener(new OnSizeChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                onSizeChanged();
+            }
+        }, mBuilder.mStartGravity == TOP));
         mBuilder.mSliderView.getViewTreeObserver().addOnGlobalLayoutListener(
                 new OnGlobalLayoutSingleListener(mBuilder.mSliderView, new Runnable() {
                     @Override
                     public void run() {
-                        
-                        mViewHeight = mBuilder.mSliderView.getHeight();
-                        mViewWidth = mBuilder.mSliderView.getWidth();
-                        switch (mBuilder.mStartGravity) {
-                            case TOP:
-                                mBuilder.mSliderView.setPivotY(mViewHeight);
-                                setTouchableAreaVertical();
-                                break;
-                            case BOTTOM:
-                                mBuilder.mSliderView.setPivotY(0);
-                                setTouchableAreaVertical();
-                                break;
-                            case START:
-                                mBuilder.mSliderView.setPivotX(0);
-                                setTouchableAreaHorizontal();
-                                break;
-                            case END:
-                                mBuilder.mSliderView.setPivotX(mViewWidth);
-                                setTouchableAreaHorizontal();
-                                break;
+                        if (mBuilder.mTracing) {
+                            SlideTrace.beginSection(SlideTrace.GLOBAL_LAYOUT);
+                        }
+                        try {
+                            updateGeometry();
+                            updateToCurrentState();
+                            runPendingMove();
+                        } finally {
+                            if (mBuilder.mTracing) {
+                                SlideTrace.endSection();
+                            }
                         }
-                        createConsumers();
-                        updateToCurrentState();
                     }
                 }));
         updateToCurrentState();
     }
     
-    private void setTouchableAreaHorizontal(){
-        if (mBuilder.mTouchableArea == 0) {
-            mBuilder.mTouchableArea = (float) Math.ceil(mViewWidth / 10);
+    /**
+     * <p>Recomputes geometry from the current size of the slider</p>
+     *
+     * @return true if the size or the hidden value was changed
+     */
+    private boolean updateGeometry() {
+        float height = mBuilder.mSliderView.getHeight();
+        float width = mBuilder.mSliderView.getWidth();
+        float hiddenValue = getHiddenValue(height, width);
+        if (height == mViewHeight && width == mViewWidth && hiddenValue == mSlideEngine.getHiddenValue()) return false;
+        mViewHeight = height;
+        mViewWidth = width;
+        switch (mBuilder.mStartGravity) {
+            case TOP:
+                mBuilder.mSliderView.setPivotY(mViewHeight);
+                break;
+            case BOTTOM:
+                mBuilder.mSliderView.setPivotY(0);
+                break;
+            case START:
+                mBuilder.mSliderView.setPivotX(0);
+                break;
+            case END:
+                mBuilder.mSliderView.setPivotX(mViewWidth);
+                break;
+        }
+        if (mTouchableAreaAuto) {
+            mBuilder.mTouchableArea = (float) Math.ceil(getSize() / 10);
         }
+        mSlideEngine.setSize(getSize(), hiddenValue);
+        return true;
     }
     
-    private void setTouchableAreaVertical(){
-        if (mBuilder.mTouchableArea == 0) {
-            mBuilder.mTouchableArea = (float) Math.ceil(mViewHeight / 10);
+    /**
+     * <p>Slider from the top moves past its top offset too, so it leaves the parent completely</p>
+     */
+    private float getHiddenValue(float height, float width) {
+        switch (mBuilder.mStartGravity) {
+            case TOP:
+                return height + mBuilder.mSliderView.getTop();
+            case BOTTOM:
+                return height;
+            default:
+                return width;
         }
     }
     
+    private void onSizeChanged() {
+        int anchor = mCurrentAnchor;
+        if (!updateGeometry() || anchor == -1 || mGestureInProgress || mSettleInProgress) return;
+        // keep resting slider at its anchor
+        float value = mSnapEngine.getAnchor(Math.min(anchor, mSnapEngine.getAnchorCount() - 1));
+        setValue(value);
+        notifyPercentChanged(SlideEngine.percentOf(value, getSize()));
+    }
+    
     private void createAnimation() {
-        mAnimationProcessor = new AnimationProcessor(mBuilder, this, this);
+        mAnimationProcessor = new AnimationProcessor(mBuilder, this, this, this);
+        mAnimationProcessor.setFrameDriver(mFrameDriver);
+    }
+    
+    SlideUpGroup getGroup() {
+        return mGroup;
+    }
+    
+    void setGroup(SlideUpGroup group, FrameDriver frameDriver) {
+        mGroup = group;
+        mFrameDriver = frameDriver;
+        if (mAnimationProcessor != null) {
+            mAnimationProcessor.setFrameDriver(frameDriver);
+        }
     }
     
     private void createConsumers() {
-        createAnimation();
-        mVerticalTouchConsumer = new VerticalTouchConsumer(mBuilder, this, mAnimationProcessor);
-        mHorizontalTouchConsumer = new HorizontalTouchConsumer(mBuilder, this, mAnimationProcessor);
+        mVerticalTouchConsumer = new VerticalTouchConsumer(mBuilder, this, mAnimationProcessor, mSlideEngine, mTouchRegions);
+        mHorizontalTouchConsumer = new HorizontalTouchConsumer(mBuilder, this, mAnimationProcessor, mSlideEngine, mTouchRegions);
+    }
+    
+    private void runPendingMove() {
+        Runnable move = mPendingMove;
+        if (move == null) return;
+        mPendingMove = null;
+        mPendingState = null;
+        move.run();
+    }
+    
+    /**
+     * <p>Keeps the latest move requested before the content is inflated, it runs once the content is laid out</p>
+     */
+    private void queueMove(Runnable move, State state) {
+        mPendingMove = move;
+        mPendingState = state;
+    }
+    
+    private boolean isBindingTarget(View view) {
+        for (PropertyBindings.Binding binding : mBuilder.mBindings) {
+            if (binding.mTarget == view) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * <p>Keeps the hidden slider visible but transparent until its first frame is drawn, so drawables
+     * of the content are loaded and display lists of its children are recorded before it is shown</p>
+     */
+    private void startWarmUp() {
+        final View view = mBuilder.mSliderView;
+        mWarmingUp = true;
+        mWarmUpAlpha = view.getAlpha();
+        view.setAlpha(0);
+        view.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                view.getViewTreeObserver().removeOnPreDrawListener(this);
+                view.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        finishWarmUp();
+                    }
+                });
+                return true;
+            }
+        });
+    }
+    
+    private void finishWarmUp() {
+        if (!mWarmingUp) return;
+        mWarmingUp = false;
+        mBuilder.mSliderView.setAlpha(mWarmUpAlpha);
+        if (mPhase == Phase.HIDDEN) {
+            applyHidden(true);
+        }
+    }
+    
+    private void applyHidden(boolean hidden) {
+        View view = mBuilder.mSliderView;
+        switch (mBuilder.mHideMode) {
+            case GONE:
+                view.setVisibility(hidden ? GONE : VISIBLE);
+                break;
+            case INVISIBLE:
+                view.setVisibility(hidden ? INVISIBLE : VISIBLE);
+                break;
+            case TRANSLATION:
+                if (mTranslationHider == null) {
+                    mTranslationHider = new TranslationHider(view);
+                    view.setVisibility(VISIBLE);
+                }
+                if (hidden) {
+                    mTranslationHider.hide();
+                } else {
+                    mTranslationHider.show();
+                }
+                break;
+        }
     }
     
     private void updateToCurrentState() {
@@ -177,8 +483,8 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
      * @see InputMethodManager#hideSoftInputFromWindow(IBinder, int)
      */
     public void hideSoftInput() {
-        ((InputMethodManager) mBuilder.mSliderView.getContext().getSystemService(Context.INPUT_METHOD_SERVICE))
-                .hideSoftInputFromWindow(mBuilder.mSliderView.getWindowToken(), InputMethodManager.HIDE_NOT_ALWAYS);
+        if (!isContentReady()) return;
+        getInputMethodManager().hideSoftInputFromWindow(mBuilder.mSliderView.getWindowToken(), InputMethodManager.HIDE_NOT_ALWAYS);
     }
     
     /**
@@ -187,8 +493,15 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
      * @see InputMethodManager#showSoftInput(View, int)
      */
     public void showSoftInput() {
-        ((InputMethodManager) mBuilder.mSliderView.getContext().getSystemService(Context.INPUT_METHOD_SERVICE))
-                .showSoftInput(mBuilder.mSliderView, 0);
+        if (!isContentReady()) return;
+        getInputMethodManager().showSoftInput(mBuilder.mSliderView, 0);
+    }
+    
+    private InputMethodManager getInputMethodManager() {
+        if (mInputMethodManager == null) {
+            mInputMethodManager = (InputMethodManager) mBuilder.mSliderView.getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
+        }
+        return mInputMethodManager;
     }
     
     /**
@@ -197,14 +510,28 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
      * @return true if view have status {@link View#VISIBLE}
      */
     public boolean isVisible() {
+        if (!isContentReady() || mWarmingUp) return false;
+        if (mBuilder.mHideMode == HideMode.TRANSLATION) {
+            return mPhase != Phase.HIDDEN;
+        }
         return mBuilder.mSliderView.getVisibility() == VISIBLE;
     }
     
+    /**
+     * <p>Returns false while content of a lazy slider is not inflated yet</p>
+     *
+     * @see SlideUpBuilder#SlideUpBuilder(android.view.ViewStub)
+     */
+    public boolean isContentReady() {
+        return mBuilder.mSliderView != null;
+    }
+    
     /**
      * <p>Add Listener which will be used in combination with this SlideUp</p>
      */
     public void addSlideListener(@NonNull Listener listener) {
         mBuilder.mListeners.add(listener);
+        partitionListeners();
     }
     
     /**
@@ -212,10 +539,11 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
      */
     public void removeSlideListener(@NonNull Listener listener) {
         mBuilder.mListeners.remove(listener);
+        partitionListeners();
     }
     
     /**
-     * <p>Returns typed view which was used as slider</p>
+     * <p>Returns typed view which was used as slider, or null while content of a lazy slider is not inflated</p>
      */
     public <T extends View> T getSliderView() {
         return (T) mBuilder.mSliderView;
@@ -228,7 +556,9 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
      */
     public void setAutoSlideDuration(int autoSlideDuration) {
         mBuilder.withAutoSlideDuration(autoSlideDuration);
-        mAnimationProcessor.paramsChanged();
+        if (mAnimationProcessor != null) {
+            mAnimationProcessor.paramsChanged();
+        }
     }
     
     /**
@@ -244,6 +574,7 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
      * @param touchableArea <b>(default - <b color="#EF6C00">300dp</b>)</b>
      */
     public void setTouchableAreaDp(float touchableArea) {
+        mTouchableAreaAuto = false;
         mBuilder.withTouchableAreaDp(touchableArea);
     }
     
@@ -253,6 +584,7 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
      * @param touchableArea <b>(default - <b color="#EF6C00">300dp</b>)</b>
      */
     public void setTouchableAreaPx(float touchableArea) {
+        mTouchableAreaAuto = false;
         mBuilder.withTouchableAreaPx(touchableArea);
     }
     
@@ -276,7 +608,7 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
      * @return true if animation is running
      */
     public boolean isAnimationRunning() {
-        return mAnimationProcessor.isAnimationRunning();
+        return mAnimationProcessor != null && mAnimationProcessor.isAnimationRunning();
     }
     
     /**
@@ -308,7 +640,11 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
     }
     
     /**
-     * <p>Turning on/off debug logging</p>
+     * <p>Turning on/off debug logging. Handled events are recorded to the event log
+     * instead of logcat, so logging does not slow down the slider</p>
+     *
+     * @see #getEventLog()
+     * @see #dumpEventLog(PrintWriter)
      *
      * @param enabled <b>(default - <b color="#EF6C00">false</b>)</b>
      */
@@ -323,6 +659,41 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
         return mBuilder.mDebug;
     }
     
+    /**
+     * <p>Returns a copy of events recorded while debug logging was enabled, ordered from the oldest one</p>
+     */
+    public SlideEventLog getEventLog() {
+        return mEventLog == null ? new SlideEventLog(1) : mEventLog.snapshot();
+    }
+    
+    /**
+     * <p>Writes events recorded while debug logging was enabled, e.g. into a bug report</p>
+     */
+    public void dumpEventLog(@NonNull PrintWriter writer) {
+        if (mEventLog != null) {
+            mEventLog.dump(writer);
+        }
+    }
+    
+    /**
+     * <p>Drops recorded events, e.g. after they were dumped, so the next dump contains new events only</p>
+     */
+    public void clearEventLog() {
+        if (mEventLog != null) {
+            mEventLog.clear();
+        }
+    }
+    
+    /**
+     * <p>Starts recording touch events handled by the slider, to replay them later
+     * with {@link GestureReplayer}</p>
+     *
+     * @param recorder recorder to write events to, or null to stop recording
+     */
+    public void setGestureRecorder(@Nullable GestureRecorder recorder) {
+        mGestureRecorder = recorder;
+    }
+    
     /**
      * <p>Turning on/off gestures</p>
      *
@@ -361,7 +732,9 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
      */
     public void setInterpolator(TimeInterpolator interpolator) {
         mBuilder.withInterpolator(interpolator);
-        mAnimationProcessor.paramsChanged();
+        if (mAnimationProcessor != null) {
+            mAnimationProcessor.paramsChanged();
+        }
     }
     
     /**
@@ -380,14 +753,48 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
         mBuilder.withHideSoftInputWhenDisplayed(hide);
     }
     
+    /**
+     * <p>Settle the slider to the anchor with animation</p>
+     *
+     * @param anchor index of the anchor <b color="#EF6C00">(0 = SHOWED, last = collapsed)</b>
+     * @see SlideUpBuilder#withAnchors(float...)
+     * @see SlideUpBuilder#withPeekHeightDp(float)
+     */
+    public void snapTo(final int anchor) {
+        if (!isContentReady()) {
+            queueMove(new Runnable() {
+                @Override
+                public void run() {
+                    snapTo(anchor);
+                }
+            }, anchor == 0 ? SHOWED : HIDDEN);
+            return;
+        }
+        moveTo(mSnapEngine.getAnchor(anchor), false, anchor == 0 ? SHOWED : HIDDEN);
+    }
+    
+    /**
+     * <p>Returns index of the anchor the slider rests at, or -1 if it is not laid out yet</p>
+     */
+    public int getCurrentAnchor() {
+        return mCurrentAnchor;
+    }
+    
+    /**
+     * <p>Returns count of anchors, including shown and collapsed states</p>
+     */
+    public int getAnchorCount() {
+        return mSnapEngine.getAnchorCount();
+    }
+    
     /**
      * <p>Toggle current state with animation</p>
      */
     public void toggle() {
-        if (isVisible()) {
-            hide();
-        } else {
+        if (isCollapsed()) {
             show();
+        } else {
+            hide();
         }
     }
     
@@ -395,11 +802,21 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
      * <p>Toggle current state without animation</p>
      */
     public void toggleImmediately() {
-        if (isVisible()) {
-            hideImmediately();
-        } else {
+        if (isCollapsed()) {
             showImmediately();
+        } else {
+            hideImmediately();
+        }
+    }
+    
+    boolean isCollapsed() {
+        if (!isContentReady()) {
+            return (mPendingState != null ? mPendingState : mBuilder.mStartState) == HIDDEN;
+        }
+        if (mSnapEngine.hasPeek()) {
+            return mCurrentAnchor == mSnapEngine.getAnchorCount() - 1;
         }
+        return !isVisible();
     }
     
     /**
@@ -410,151 +827,267 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
         savedState.putInt(KEY_START_GRAVITY, mBuilder.mStartGravity);
         savedState.putBoolean(KEY_DEBUG, mBuilder.mDebug);
         savedState.putFloat(KEY_TOUCHABLE_AREA, mBuilder.mTouchableArea / mBuilder.mDensity);
-        savedState.putSerializable(KEY_STATE, mCurrentState);
+        savedState.putSerializable(KEY_STATE, isContentReady() ? mCurrentState : isCollapsed() ? HIDDEN : SHOWED);
         savedState.putInt(KEY_AUTO_SLIDE_DURATION, mBuilder.mAutoSlideDuration);
         savedState.putBoolean(KEY_HIDE_SOFT_INPUT, mBuilder.mHideKeyboard);
     }
     //endregion
     
-    private void hide(boolean immediately) {
-        mAnimationProcessor.endAnimation();
+    private void hide(final boolean immediately) {
+        if (!isContentReady()) {
+            queueMove(new Runnable() {
+                @Override
+                public void run() {
+                    hide(immediately);
+                }
+            }, HIDDEN);
+            return;
+        }
+        if (immediately) {
+            mAnimationProcessor.endAnimation();
+        }
+        moveTo(mSnapEngine.getCollapsedValue(), immediately, HIDDEN);
+    }
+    
+    private void show(final boolean immediately) {
+        if (!isContentReady()) {
+            queueMove(new Runnable() {
+                @Override
+                public void run() {
+                    show(immediately);
+                }
+            }, SHOWED);
+            return;
+        }
+        if (immediately) {
+            mAnimationProcessor.endAnimation();
+        }
+        moveTo(0, immediately, SHOWED);
+    }
+    
+    /**
+     * @param value        animation value to move the slider to
+     * @param pendingState state to apply once the slider is laid out
+     */
+    private void moveTo(float value, boolean immediately, State pendingState) {
+        float size = getSize();
+        if (!immediately) {
+            mAnimationProcessor.setValuesAndStart(getValue(), value);
+        } else if (size > 0) {
+            if (mGroup != null && value < mSnapEngine.getCollapsedValue()) {
+                mGroup.onMemberShowing(this);
+            }
+            setValue(value);
+            notifyPercentChanged(SlideEngine.percentOf(value, size));
+            updateAnchor(value);
+        } else {
+            mBuilder.mStartState = pendingState;
+        }
+    }
+    
+    private float getSize() {
+        return isVertical() ? mViewHeight : mViewWidth;
+    }
+    
+    private boolean isVertical() {
+        return mBuilder.mStartGravity == TOP || mBuilder.mStartGravity == BOTTOM;
+    }
+    
+    /**
+     * <p>Returns current animation value, 0 is the shown state, positive values are directed to hidden state</p>
+     */
+    private float getValue() {
         switch (mBuilder.mStartGravity) {
             case TOP:
-                if (immediately) {
-                    if (mBuilder.mSliderView.getHeight() > 0) {
-                        mBuilder.mSliderView.setTranslationY(-mViewHeight);
-                        notifyPercentChanged(100);
-                    } else {
-                        mBuilder.mStartState = HIDDEN;
-                    }
-                } else {
-                    mAnimationProcessor.setValuesAndStart(mBuilder.mSliderView.getTranslationY(), mBuilder.mSliderView.getHeight());
-                }
-                break;
+                return -mBuilder.mSliderView.getTranslationY();
             case BOTTOM:
-                if (immediately) {
-                    if (mBuilder.mSliderView.getHeight() > 0) {
-                        mBuilder.mSliderView.setTranslationY(mViewHeight);
-                        notifyPercentChanged(100);
-                    } else {
-                        mBuilder.mStartState = HIDDEN;
-                    }
-                } else {
-                    mAnimationProcessor.setValuesAndStart(mBuilder.mSliderView.getTranslationY(), mBuilder.mSliderView.getHeight());
-                }
-                break;
+                return mBuilder.mSliderView.getTranslationY();
             case START:
-                if (immediately) {
-                    if (mBuilder.mSliderView.getWidth() > 0) {
-                        mBuilder.mSliderView.setTranslationX(-mViewWidth);
-                        notifyPercentChanged(100);
-                    } else {
-                        mBuilder.mStartState = HIDDEN;
-                    }
-                } else {
-                    mAnimationProcessor.setValuesAndStart(mBuilder.mSliderView.getTranslationX(), mBuilder.mSliderView.getHeight());
-                }
-                break;
+                return -mBuilder.mSliderView.getTranslationX();
             case END:
-                if (immediately) {
-                    if (mBuilder.mSliderView.getWidth() > 0) {
-                        mBuilder.mSliderView.setTranslationX(mViewWidth);
-                        notifyPercentChanged(100);
-                    } else {
-                        mBuilder.mStartState = HIDDEN;
-                    }
-                } else {
-                    mAnimationProcessor.setValuesAndStart(mBuilder.mSliderView.getTranslationX(), mBuilder.mSliderView.getHeight());
-                }
-                break;
+                return mBuilder.mSliderView.getTranslationX();
+            default:
+                throw new IllegalArgumentException("You are using not supported gravity");
         }
     }
     
-    private void show(boolean immediately) {
-        mAnimationProcessor.endAnimation();
+    private void setValue(float value) {
         switch (mBuilder.mStartGravity) {
             case TOP:
-                if (immediately) {
-                    if (mBuilder.mSliderView.getHeight() > 0) {
-                        mBuilder.mSliderView.setTranslationY(0);
-                        notifyPercentChanged(0);
-                    } else {
-                        mBuilder.mStartState = SHOWED;
-                    }
-                } else {
-                    mAnimationProcessor.setValuesAndStart(mBuilder.mSliderView.getTranslationY(), 0);
-                }
+                mBuilder.mSliderView.setTranslationY(-value);
+                break;
             case BOTTOM:
-                if (immediately) {
-                    if (mBuilder.mSliderView.getHeight() > 0) {
-                        mBuilder.mSliderView.setTranslationY(0);
-                        notifyPercentChanged(0);
-                    } else {
-                        mBuilder.mStartState = SHOWED;
-                    }
-                } else {
-                    mAnimationProcessor.setValuesAndStart(mBuilder.mSliderView.getTranslationY(), 0);
-                }
+                mBuilder.mSliderView.setTranslationY(value);
                 break;
             case START:
-                if (immediately) {
-                    if (mBuilder.mSliderView.getWidth() > 0) {
-                        mBuilder.mSliderView.setTranslationX(0);
-                        notifyPercentChanged(0);
-                    } else {
-                        mBuilder.mStartState = SHOWED;
-                    }
-                } else {
-                    mAnimationProcessor.setValuesAndStart(mBuilder.mSliderView.getTranslationX(), 0);
-                }
+                mBuilder.mSliderView.setTranslationX(-value);
+                break;
             case END:
-                if (immediately) {
-                    if (mBuilder.mSliderView.getWidth() > 0) {
-                        mBuilder.mSliderView.setTranslationX(0);
-                        notifyPercentChanged(0);
-                    } else {
-                        mBuilder.mStartState = SHOWED;
-                    }
-                } else {
-                    mAnimationProcessor.setValuesAndStart(mBuilder.mSliderView.getTranslationX(), 0);
-                }
+                mBuilder.mSliderView.setTranslationX(value);
                 break;
         }
     }
     
+    /**
+     * <p>Moves the slider by scroll left over by nested scrolling content</p>
+     *
+     * @param delta animation value delta, positive values are directed to the hidden state
+     * @return consumed part of the delta
+     */
+    float onNestedDrag(float delta) {
+        float size = getSize();
+        if (size == 0 || mGestureInProgress && !mNestedDragInProgress) return 0;
+        if (!mNestedDragInProgress && mAnimationProcessor.isAnimationRunning()) return 0;
+        float value = getValue();
+        float target = mSlideEngine.limitDrag(value + delta);
+        if (target == value) return 0;
+        if (!mNestedDragInProgress) {
+            mNestedDragInProgress = true;
+            notifyGestureStarted();
+        }
+        setValue(target);
+        notifyPercentChanged(SlideEngine.percentOf(target, size));
+        return target - value;
+    }
+    
+    /**
+     * <p>Settles the slider if it was moved by nested scrolling</p>
+     *
+     * @param velocity release velocity in animation value units per second
+     * @return true if the slider was moved and takes the fling
+     */
+    boolean onNestedDragEnd(float velocity) {
+        if (!mNestedDragInProgress) return false;
+        mNestedDragInProgress = false;
+        TouchConsumer consumer = isVertical() ? mVerticalTouchConsumer : mHorizontalTouchConsumer;
+        consumer.settle(getValue(), velocity);
+        notifyGestureFinished();
+        return true;
+    }
+    
     @Override
     public final boolean onTouch(View v, MotionEvent event) {
-        if (mAnimationProcessor.isAnimationRunning()) return false;
+        if (mGestureRecorder != null) {
+            mGestureRecorder.record(event);
+        }
+        if (!mBuilder.mTracing) return handleTouch(v, event);
+        SlideTrace.beginSection(SlideTrace.ON_TOUCH);
+        try {
+            return handleTouch(v, event);
+        } finally {
+            SlideTrace.endSection();
+        }
+    }
+    
+    private boolean handleTouch(View v, MotionEvent event) {
+        if (mAnimationProcessor.isAnimationRunning()) {
+            if (!mBuilder.mGesturesEnabled || event.getActionMasked() != MotionEvent.ACTION_DOWN) return false;
+            interruptSettle();
+        }
+        if (mFrameTimingTracker != null) {
+            mFrameTimingTracker.onInput(event.getEventTime());
+        }
         if (!mBuilder.mGesturesEnabled){
             mBuilder.mSliderView.performClick();
             return true;
         }
+        String section = mBuilder.mTracing ? getConsumeSection(event) : null;
+        if (section != null) {
+            SlideTrace.beginSection(section);
+        }
         boolean consumed;
+        try {
+            consumed = consume(v, event);
+        } finally {
+            if (section != null) {
+                SlideTrace.endSection();
+            }
+        }
+        logEvent(SlideEventLog.TYPE_TOUCH, event.getActionMasked(), -1, Float.NaN);
+        int action = event.getActionMasked();
+        if (mSettleInterrupted && (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL)) {
+            mSettleInterrupted = false;
+            if (!mSettleInProgress) {
+                // slider was caught and released without a drag, it goes on with the velocity it had
+                TouchConsumer consumer = isVertical() ? mVerticalTouchConsumer : mHorizontalTouchConsumer;
+                consumer.settle(getValue(), mSettleVelocity);
+                consumed = true;
+            }
+        }
+        if (!consumed){
+            mBuilder.mSliderView.performClick();
+        }
+        return true;
+    }
+    
+    /**
+     * <p>Stops the settle at its current value, so a touch can grab the slider mid-way.
+     * Touch consumers take their start positions from the translation it is left at</p>
+     */
+    private void interruptSettle() {
+        mAnimationProcessor.cancelAnimation();
+        mSettleInProgress = false;
+        mSettleInterrupted = true;
+        logEvent(SlideEventLog.TYPE_SETTLE_END, 0, -1, Float.NaN);
+        float size = getSize();
+        if (size > 0) {
+            // values of the view property animator were not observed
+            notifyPercentChanged(SlideEngine.percentOf(getValue(), size));
+        }
+    }
+    
+    private boolean consume(View v, MotionEvent event) {
         switch (mBuilder.mStartGravity) {
             case TOP:
-                consumed = mVerticalTouchConsumer.consumeTopToBottom(v, event);
-                break;
+                return mVerticalTouchConsumer.consumeTopToBottom(v, event);
             case BOTTOM:
-                consumed = mVerticalTouchConsumer.consumeBottomToTop(v, event);
-                break;
+                return mVerticalTouchConsumer.consumeBottomToTop(v, event);
             case START:
-                consumed = mHorizontalTouchConsumer.consumeStartToEnd(v, event);
-                break;
+                return mHorizontalTouchConsumer.consumeStartToEnd(v, event);
             case END:
-                consumed = mHorizontalTouchConsumer.consumeEndToStart(v, event);
-                break;
+                return mHorizontalTouchConsumer.consumeEndToStart(v, event);
             default:
                 throw new IllegalArgumentException("You are using not supported gravity");
         }
-        if (!consumed){
-            mBuilder.mSliderView.performClick();
+    }
+    
+    private static String getConsumeSection(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_MOVE:
+                return SlideTrace.CONSUME_MOVE;
+            case MotionEvent.ACTION_UP:
+                return SlideTrace.CONSUME_UP;
+            default:
+                return null;
         }
-        return true;
     }
     
     @Override
     public final void onAnimationUpdate(ValueAnimator animation) {
-        float value = (float) animation.getAnimatedValue();
+        onSettleUpdate(mAnimationProcessor.getAnimatedValue(animation));
+    }
+    
+    @Override
+    public final void onSettleUpdate(float value) {
+        long time = AnimationUtils.currentAnimationTimeMillis();
+        if (mLastSettleTime != 0 && time > mLastSettleTime) {
+            mSettleVelocity = (value - mLastSettleValue) * 1000 / (time - mLastSettleTime);
+        }
+        mLastSettleValue = value;
+        mLastSettleTime = time;
+        if (!mBuilder.mTracing) {
+            applySettleValue(value);
+            return;
+        }
+        SlideTrace.beginSection(SlideTrace.SETTLE_UPDATE);
+        try {
+            applySettleValue(value);
+        } finally {
+            SlideTrace.endSection();
+        }
+    }
+    
+    private void applySettleValue(float value) {
         switch (mBuilder.mStartGravity) {
             case TOP:
                 onAnimationUpdateTopToBottom(value);
@@ -573,86 +1106,83 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
     
     private void onAnimationUpdateTopToBottom(float value) {
         mBuilder.mSliderView.setTranslationY(-value);
-        float visibleDistance = mBuilder.mSliderView.getTop() - mBuilder.mSliderView.getY();
-        float percents = (visibleDistance) * 100 / mViewHeight;
-        notifyPercentChanged(percents);
+        notifyPercentChanged(mSlideEngine.getPercent(value));
     }
     
     private void onAnimationUpdateBottomToTop(float value) {
         mBuilder.mSliderView.setTranslationY(value);
-        float visibleDistance = mBuilder.mSliderView.getY() - mBuilder.mSliderView.getTop();
-        float percents = (visibleDistance) * 100 / mViewHeight;
-        notifyPercentChanged(percents);
+        notifyPercentChanged(mSlideEngine.getPercent(value));
     }
     
     private void onAnimationUpdateStartToEnd(float value) {
         mBuilder.mSliderView.setTranslationX(-value);
-        float visibleDistance = mBuilder.mSliderView.getX() - getStart();
-        float percents = (visibleDistance) * 100 / -mViewWidth;
-        notifyPercentChanged(percents);
+        notifyPercentChanged(mSlideEngine.getPercent(value));
     }
     
     private void onAnimationUpdateEndToStart(float value) {
         mBuilder.mSliderView.setTranslationX(value);
-        float visibleDistance = mBuilder.mSliderView.getX() - getStart();
-        float percents = (visibleDistance) * 100 / mViewWidth;
-        notifyPercentChanged(percents);
-    }
-    
-    private int getStart() {
-        if (mBuilder.mIsRTL) {
-            return mBuilder.mSliderView.getRight();
-        } else {
-            return mBuilder.mSliderView.getLeft();
-        }
+        notifyPercentChanged(mSlideEngine.getPercent(value));
     }
     
     @Override
     public void notifyPercentChanged(float percent) {
         percent = percent > 100 ? 100 : percent;
         percent = percent < 0 ? 0 : percent;
-        if (percent == 100) {
-            mBuilder.mSliderView.setVisibility(GONE);
-            notifyVisibilityChanged(GONE);
-        } else {
-            mBuilder.mSliderView.setVisibility(VISIBLE);
-            if (percent == 0) {
-                notifyVisibilityChanged(VISIBLE);
-            }
+        mPercent = percent;
+        if (mScrim != null) {
+            mScrim.setProgress(1 - percent / 100);
         }
-        if (mAnimationProcessor.getSlideAnimationTo() == 0 && mBuilder.mHideKeyboard)
-            hideSoftInput();
-        if (!mBuilder.mListeners.isEmpty()) {
-            for (int i = 0; i < mBuilder.mListeners.size(); i++) {
-                Listener l = mBuilder.mListeners.get(i);
-                if (l != null) {
-                    if (l instanceof Listener.Slide) {
-                        Listener.Slide slide = (Listener.Slide) l;
-                        slide.onSlide(percent);
-                        logValue(i, "onSlide", percent);
-                    }
-                } else {
-                    logError(i, "onSlide");
-                }
-            }
+        if (mPropertyBindings != null) {
+            mPropertyBindings.apply(percent);
+        }
+        // hysteresis: a moving slider is hidden once it rests, so its visibility doesn't flip back and forth
+        // while a drag or a bouncing spring touches the hidden state
+        if (percent == 100 && !mGestureInProgress && !mSettleInProgress) {
+            setPhase(Phase.HIDDEN);
+        } else if (percent == 0) {
+            setPhase(Phase.SHOWN);
+        } else if (mSettleInProgress) {
+            setPhase(Phase.SETTLING);
+        } else if (mGestureInProgress) {
+            setPhase(Phase.DRAGGING);
+        } else if (mPhase != Phase.DRAGGING && mPhase != Phase.SETTLING) {
+            setPhase(Phase.ANCHORED);
+        }
+        if (mFrameTimingTracker != null) {
+            mFrameTimingTracker.onMoved();
+        }
+        if (mBuilder.mTracing) {
+            SlideTrace.setCounter(mTracePercentCounter, (int) percent);
+        }
+        Listener.Slide[] listeners = mSlideListeners;
+        if (listeners.length == 0) return;
+        if (!mBuilder.mTracing) {
+            notifySlideListeners(listeners, percent);
+            return;
         }
+        SlideTrace.beginSection(SlideTrace.NOTIFY_SLIDE);
+        try {
+            notifySlideListeners(listeners, percent);
+        } finally {
+            SlideTrace.endSection();
+        }
+    }
+    
+    private void notifySlideListeners(Listener.Slide[] listeners, float percent) {
+        SlideDelivery delivery = mSlideDelivery;
+        // a listener may move the slider, the outer dispatch goes on with its own percent
+        float outer = delivery.mPercent;
+        delivery.mPercent = percent;
+        ListenerFanout.deliver(listeners, delivery);
+        delivery.mPercent = outer;
     }
     
     @Override
     public void notifyVisibilityChanged(int visibility) {
-        if (!mBuilder.mListeners.isEmpty()) {
-            for (int i = 0; i < mBuilder.mListeners.size(); i++) {
-                Listener l = mBuilder.mListeners.get(i);
-                if (l != null) {
-                    if (l instanceof Listener.Visibility) {
-                        Listener.Visibility vis = (Listener.Visibility) l;
-                        vis.onVisibilityChanged(visibility);
-                        logValue(i, "onVisibilityChanged", visibility == VISIBLE ? "VISIBLE" : visibility == GONE ? "GONE" : visibility);
-                    }
-                } else {
-                    logError(i, "onVisibilityChanged");
-                }
-            }
+        Listener.Visibility[] listeners = mVisibilityListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onVisibilityChanged(visibility);
+            logEvent(SlideEventLog.TYPE_VISIBILITY, visibility, i, Float.NaN);
         }
         switch (visibility) {
             case VISIBLE:
@@ -664,12 +1194,184 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
         }
     }
     
+    @Override
+    public void notifyGestureStarted() {
+        mGestureInProgress = true;
+        if (mBuilder.mHardwareLayers) {
+            mHardwareLayerHelper.promote();
+        }
+        if (mFrameTimingTracker != null) {
+            mFrameTimingTracker.start(true);
+        }
+    }
+    
+    @Override
+    public void notifyGestureFinished() {
+        mGestureInProgress = false;
+        if (!mSettleInProgress) {
+            if (mPhase == Phase.DRAGGING && mPercent == 100) {
+                setPhase(Phase.HIDDEN);
+            }
+            mHardwareLayerHelper.demote();
+            if (mFrameTimingTracker != null) {
+                mFrameTimingTracker.finish();
+            }
+        }
+    }
+    
+    @Override
+    public final void onSettleEnd() {
+        mSettleInProgress = false;
+        logEvent(SlideEventLog.TYPE_SETTLE_END, 0, -1, Float.NaN);
+        if (mPhase == Phase.SETTLING) {
+            setPhase(mPercent == 100 ? Phase.HIDDEN : Phase.ANCHORED);
+        }
+        updateAnchor(mAnimationProcessor.getSlideAnimationTo());
+        if (!mGestureInProgress) {
+            mHardwareLayerHelper.demote();
+            if (mFrameTimingTracker != null) {
+                mFrameTimingTracker.finish();
+            }
+        }
+    }
+    
+    @Override
+    public final boolean needsFrameUpdates() {
+        return mSlideListeners.length != 0 || mScrim != null || mPropertyBindings != null || mGroup != null
+                || mBuilder.mDebug || mBuilder.mTracing;
+    }
+    
+    @Override
+    public final void onSettleStart(float to) {
+        mSettleInProgress = true;
+        mSettleVelocity = 0;
+        mLastSettleTime = 0;
+        logEvent(SlideEventLog.TYPE_SETTLE_START, 0, -1, to);
+        if (mGroup != null && to < mSnapEngine.getCollapsedValue()) {
+            mGroup.onMemberShowing(this);
+        }
+        if (mBuilder.mHardwareLayers) {
+            mHardwareLayerHelper.promote();
+        }
+        if (mFrameTimingTracker != null) {
+            mFrameTimingTracker.start(false);
+        }
+        setPhase(Phase.SETTLING);
+        if (to == 0 && mBuilder.mHideKeyboard) {
+            hideSoftInput();
+        }
+    }
+    
+    private void setPhase(Phase phase) {
+        Phase previous = mPhase;
+        if (previous == phase) return;
+        mPhase = phase;
+        if (mBuilder.mTracing) {
+            SlideTrace.setCounter(mTracePhaseCounter, phase.ordinal());
+        }
+        if (phase == Phase.HIDDEN) {
+            if (!mWarmingUp) {
+                applyHidden(true);
+            }
+            // a hidden slider rests at the collapsed anchor, however it got there
+            updateAnchor(mSnapEngine.getCollapsedValue());
+            notifyVisibilityChanged(GONE);
+            return;
+        }
+        finishWarmUp();
+        if (previous == Phase.HIDDEN || previous == null) {
+            applyHidden(false);
+        }
+        if (phase == Phase.SHOWN) {
+            notifyVisibilityChanged(VISIBLE);
+            if (previous != Phase.SETTLING && mBuilder.mHideKeyboard) {
+                hideSoftInput();
+            }
+        }
+    }
+    
+    private void updateAnchor(float value) {
+        int anchor = mSnapEngine.indexOf(value);
+        if (anchor == -1 || anchor == mCurrentAnchor) return;
+        mCurrentAnchor = anchor;
+        if (mSnapEngine.hasPeek()) {
+            mCurrentState = isCollapsed() ? HIDDEN : SHOWED;
+        }
+        Listener.Anchor[] listeners = mAnchorListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onAnchorChanged(anchor);
+            logEvent(SlideEventLog.TYPE_ANCHOR, anchor, i, Float.NaN);
+        }
+    }
+    
+    /**
+     * <p>Splits registered listeners into typed arrays. Arrays are never modified after creation,
+     * so dispatch iterates a snapshot and listeners may (un)register themselves from callbacks</p>
+     */
+    private void partitionListeners() {
+        List<Listener> all = mBuilder.mListeners;
+        List<Listener.Slide> slide = new ArrayList<>(all.size());
+        List<Listener.Visibility> visibility = new ArrayList<>(all.size());
+        List<Listener.Anchor> anchor = new ArrayList<>(all.size());
+        List<Listener.Metrics> metrics = new ArrayList<>(all.size());
+        for (int i = 0; i < all.size(); i++) {
+            Listener l = all.get(i);
+            if (l == null) {
+                logError(i, "partitionListeners");
+                continue;
+            }
+            if (l instanceof Listener.Slide) {
+                slide.add((Listener.Slide) l);
+            }
+            if (l instanceof Listener.Visibility) {
+                visibility.add((Listener.Visibility) l);
+            }
+            if (l instanceof Listener.Anchor) {
+                anchor.add((Listener.Anchor) l);
+            }
+            if (l instanceof Listener.Metrics) {
+                metrics.add((Listener.Metrics) l);
+            }
+        }
+        mSlideListeners = slide.toArray(new Listener.Slide[slide.size()]);
+        mVisibilityListeners = visibility.toArray(new Listener.Visibility[visibility.size()]);
+        mAnchorListeners = anchor.toArray(new Listener.Anchor[anchor.size()]);
+        mMetricsListeners = metrics.toArray(new Listener.Metrics[metrics.size()]);
+        updateFrameTimingTracker();
+    }
+    
+    /**
+     * <p>Frames are tracked only while someone listens to the metrics</p>
+     */
+    private void updateFrameTimingTracker() {
+        if (mMetricsListeners.length == 0) {
+            if (mFrameTimingTracker != null) {
+                mFrameTimingTracker.finish();
+                mFrameTimingTracker = null;
+            }
+        } else if (mFrameTimingTracker == null && isContentReady()
+                && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            // tracker of a lazy slider is created by init(), once its content is inflated
+            mFrameTimingTracker = new FrameTimingTracker(mBuilder.mSliderView, this);
+        }
+    }
+    
+    @Override
+    public final void onMetricsCollected(SlideMetrics metrics) {
+        Listener.Metrics[] listeners = mMetricsListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onMetrics(metrics);
+            logEvent(SlideEventLog.TYPE_METRICS, 0, i, Float.NaN);
+        }
+    }
+    
     @Override
     public final void onAnimationStart(Animator animator) {
     }
     
     @Override
     public final void onAnimationEnd(Animator animator) {
+        onSettleEnd();
     }
     
     @Override
@@ -680,10 +1382,12 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
     public final void onAnimationRepeat(Animator animator) {
     }
     
-    private void logValue(int listener, String method, Object message) {
-        if (mBuilder.mDebug) {
-            Log.e(TAG, String.format("Listener(%1s) (%2$-23s) value = %3$s", listener, method, message));
+    private void logEvent(int type, int argument, int listener, float target) {
+        if (!mBuilder.mDebug) return;
+        if (mEventLog == null) {
+            mEventLog = new SlideEventLog(mBuilder.mEventLogCapacity);
         }
+        mEventLog.record(type, argument, listener, getValue(), mPercent, target);
     }
     
     private void logError(int listener, String method) {
@@ -691,4 +1395,19 @@ public class SlideUp implements View.OnTouchListener, ValueAnimator.AnimatorUpda
             Log.d(TAG, String.format("Listener(%1s) (%2$-23s) Listener is null, skip notification...", listener, method));
         }
     }
+    
+    /**
+     * <p>Delivers percents to slide listeners, the same instance is used for every event</p>
+     */
+    private class SlideDelivery implements ListenerFanout.Delivery<Listener.Slide> {
+        float mPercent;
+        
+        @Override
+        public void deliver(Listener.Slide listener, int index) {
+            listener.onSlide(mPercent);
+            if (mBuilder.mDebug) {
+                logEvent(SlideEventLog.TYPE_SLIDE, 0, index, Float.NaN);
+            }
+        }
+    }
 }
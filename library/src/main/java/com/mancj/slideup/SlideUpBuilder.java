@@ -1,13 +1,23 @@
 package com.mancj.slideup;
 
 import android.animation.TimeInterpolator;
+import android.graphics.Rect;
 import android.os.Bundle;
+import android.support.annotation.ColorInt;
+import android.support.annotation.FloatRange;
+import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.util.Property;
 import android.view.Gravity;
 import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewStub;
 import android.view.animation.DecelerateInterpolator;
 
+import com.mancj.slideup.core.Spring;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -19,18 +29,40 @@ public final class SlideUpBuilder {
     private boolean mStateRestored = false;
     
     View mSliderView;
+    LazyContent mLazyContent;
     float mDensity;
     float mTouchableArea;
     boolean mIsRTL;
     SlideUp.State mStartState = SlideUp.State.HIDDEN;
     List<SlideUp.Listener> mListeners = new ArrayList<>();
     boolean mDebug = false;
+    int mEventLogCapacity = 512;
     int mAutoSlideDuration = 300;
     int mStartGravity = Gravity.BOTTOM;
     boolean mGesturesEnabled = true;
     boolean mHideKeyboard = false;
     TimeInterpolator mInterpolator = new DecelerateInterpolator();
     View mAlsoScrollView;
+    boolean mSpringEnabled = false;
+    float mSpringStiffness = Spring.STIFFNESS_MEDIUM;
+    float mSpringDampingRatio = Spring.DAMPING_RATIO_NO_BOUNCY;
+    boolean mDragCoalescing = false;
+    boolean mHardwareLayers = false;
+    SlideUp.AnimationBackend mAnimationBackend = SlideUp.AnimationBackend.VALUE_ANIMATOR;
+    SlideUp.HideMode mHideMode = SlideUp.HideMode.GONE;
+    boolean mTracing = false;
+    View mScrimHost;
+    int mScrimColor;
+    float mScrimMaxAlpha;
+    TimeInterpolator mScrimCurve;
+    List<PropertyBindings.Binding> mBindings = new ArrayList<>();
+    boolean mTouchResampling = false;
+    int mTouchPrediction = 0;
+    float[] mAnchors = new float[0];
+    float mPeekHeight = 0;
+    View[] mDragHandles = new View[0];
+    Rect[] mDragHandleRects = new Rect[0];
+    View[] mTouchExclusions = new View[0];
 
     /**
      * <p>Construct a SlideUp by passing the view or his child to use for the generation</p>
@@ -42,6 +74,44 @@ public final class SlideUpBuilder {
         mIsRTL = sliderView.getResources().getBoolean(R.bool.is_right_to_left);
     }
     
+    /**
+     * <p>Construct a lazy SlideUp, its content is inflated from the stub once the main thread is idle
+     * after the next frame, and drawn once while hidden. Until then {@link SlideUp#getSliderView()}
+     * returns null, and moves like {@link SlideUp#show()} are queued, only the latest one is kept</p>
+     *
+     * <p>Views inside of the content don't exist yet, so drag handles, touch exclusions and bindings
+     * can't refer to them</p>
+     *
+     * @param stub stub to inflate, its inflated id and layout params are used by the slider
+     */
+    public SlideUpBuilder(ViewStub stub) {
+        Internal.checkNonNull(stub, "ViewStub can't be null");
+        if (stub.getLayoutResource() == 0) {
+            throw new IllegalArgumentException("ViewStub must have a valid layout resource");
+        }
+        mLazyContent = new LazyContent(stub);
+        mDensity = stub.getResources().getDisplayMetrics().density;
+        mIsRTL = stub.getResources().getBoolean(R.bool.is_right_to_left);
+    }
+    
+    /**
+     * <p>Construct a lazy SlideUp, its content is inflated from the layout and added to the end
+     * of the parent once the main thread is idle after the next frame</p>
+     *
+     * @param parent      parent to add the slider to, the layout params are generated by it
+     * @param layoutResId layout of the slider
+     * @see #SlideUpBuilder(ViewStub)
+     */
+    public SlideUpBuilder(ViewGroup parent, @LayoutRes int layoutResId) {
+        Internal.checkNonNull(parent, "Parent can't be null");
+        if (layoutResId == 0) {
+            throw new IllegalArgumentException("Layout resource must be valid");
+        }
+        mLazyContent = new LazyContent(parent, layoutResId);
+        mDensity = parent.getResources().getDisplayMetrics().density;
+        mIsRTL = parent.getResources().getBoolean(R.bool.is_right_to_left);
+    }
+    
     /**
      * <p>Define a start state on screen</p>
      *
@@ -90,7 +160,7 @@ public final class SlideUpBuilder {
     }
     
     /**
-     * <p>Turning on/off debug logging for all handled events</p>
+     * <p>Turning on/off debug logging for all handled events, events are recorded to the event log of {@link SlideUp}</p>
      *
      * @param enabled <b>(default - <b color="#EF6C00">false</b>)</b>
      */
@@ -101,6 +171,20 @@ public final class SlideUpBuilder {
         return this;
     }
     
+    /**
+     * <p>Define count of the latest events kept in the event log while debug logging is enabled</p>
+     *
+     * @param capacity <b>(default - <b color="#EF6C00">512</b>)</b>
+     * @see SlideUp#getEventLog()
+     */
+    public SlideUpBuilder withEventLogCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Event log capacity must be positive");
+        }
+        mEventLogCapacity = capacity;
+        return this;
+    }
+    
     /**
      * <p>Define duration of animation (whenever you use {@link SlideUp#hide()} or {@link SlideUp#show()} methods)</p>
      *
@@ -188,6 +272,290 @@ public final class SlideUpBuilder {
         return this;
     }
     
+    /**
+     * <p>Settle the slider with spring physics instead of interpolated animation.
+     * The spring starts from the release velocity and can be retargeted while running,
+     * duration and interpolator are ignored in this mode.</p>
+     * <p>Works on {@link android.os.Build.VERSION_CODES#JELLY_BEAN} and above,
+     * interpolated animation is used on older versions</p>
+     *
+     * @param stiffness    <b>(default - <b color="#EF6C00">1500</b>)</b>
+     * @param dampingRatio <b>(default - <b color="#EF6C00">1</b>, values less than 1 are bouncy)</b>
+     */
+    public SlideUpBuilder withSpring(float stiffness, float dampingRatio) {
+        if (stiffness <= 0) {
+            throw new IllegalArgumentException("Spring stiffness must be positive");
+        }
+        if (dampingRatio <= 0) {
+            throw new IllegalArgumentException("Spring damping ratio must be positive");
+        }
+        mSpringEnabled = true;
+        mSpringStiffness = stiffness;
+        mSpringDampingRatio = dampingRatio;
+        return this;
+    }
+    
+    /**
+     * <p>Settle the slider with non-bouncy spring physics of medium stiffness</p>
+     *
+     * @see #withSpring(float, float)
+     */
+    public SlideUpBuilder withSpring() {
+        return withSpring(Spring.STIFFNESS_MEDIUM, Spring.DAMPING_RATIO_NO_BOUNCY);
+    }
+    
+    /**
+     * <p>Turning on/off coalescing of drag events. When enabled, only the latest touch position
+     * is applied once per display frame, which saves redundant invalidations and listener
+     * notifications on devices with high touch sampling rate. Pending position is applied
+     * immediately when the finger is lifted</p>
+     * <p>Works on {@link android.os.Build.VERSION_CODES#JELLY_BEAN} and above</p>
+     *
+     * @param enabled <b>(default - <b color="#EF6C00">false</b>)</b>
+     */
+    public SlideUpBuilder withDragCoalescing(boolean enabled) {
+        mDragCoalescing = enabled;
+        return this;
+    }
+    
+    /**
+     * <p>Define engine of the slide animation, it's not used with a spring</p>
+     *
+     * @param backend <b>(default - <b color="#EF6C00">VALUE_ANIMATOR</b>)</b>
+     * @see SlideUp.AnimationBackend
+     */
+    public SlideUpBuilder withAnimationBackend(@NonNull SlideUp.AnimationBackend backend) {
+        Internal.checkNonNull(backend, "Animation backend can't be null");
+        mAnimationBackend = backend;
+        return this;
+    }
+    
+    /**
+     * <p>Define how the slider is hidden once it rests in the hidden state. Use
+     * {@link SlideUp.HideMode#INVISIBLE} or {@link SlideUp.HideMode#TRANSLATION} to show and hide
+     * the slider without laying out the screen again</p>
+     *
+     * @param hideMode <b>(default - <b color="#EF6C00">GONE</b>)</b>
+     * @see SlideUp.HideMode
+     */
+    public SlideUpBuilder withHideMode(@NonNull SlideUp.HideMode hideMode) {
+        Internal.checkNonNull(hideMode, "Hide mode can't be null");
+        mHideMode = hideMode;
+        return this;
+    }
+    
+    /**
+     * <p>Turning on/off hardware layer for the slider while it is dragged or animated.
+     * Layer is not used if the slider already has a layer type, or if its content
+     * is invalidated at the moment the motion starts</p>
+     *
+     * @param enabled <b>(default - <b color="#EF6C00">false</b>)</b>
+     */
+    public SlideUpBuilder withHardwareLayers(boolean enabled) {
+        mHardwareLayers = enabled;
+        return this;
+    }
+    
+    /**
+     * <p>Turning on/off system trace sections around touch handling, settle frames, listener notifications
+     * and layout callbacks, with counters of the current percent and motion phase. Sections are recorded
+     * since <b>API 18</b> and are visible in systrace or Perfetto with the app tracing enabled</p>
+     *
+     * @param enabled <b>(default - <b color="#EF6C00">false</b>)</b>
+     */
+    public SlideUpBuilder withTracing(boolean enabled) {
+        mTracing = enabled;
+        return this;
+    }
+    
+    /**
+     * <p>Turning on/off touch resampling. When enabled, the drag uses all batched pointer samples
+     * and their timestamps to estimate the pointer position at the frame time,
+     * instead of the latest reported position</p>
+     *
+     * @param enabled <b>(default - <b color="#EF6C00">false</b>)</b>
+     */
+    public SlideUpBuilder withTouchResampling(boolean enabled) {
+        mTouchResampling = enabled;
+        if (!enabled) {
+            mTouchPrediction = 0;
+        }
+        return this;
+    }
+    
+    /**
+     * <p>Define how far ahead <b>(in ms)</b> the pointer position is predicted during the drag,
+     * to hide the input to display latency. Enables touch resampling, 0 turns prediction off</p>
+     *
+     * @param horizon <b>(default - <b color="#EF6C00">0</b>)</b>
+     * @see #withTouchResampling(boolean)
+     */
+    public SlideUpBuilder withTouchPrediction(int horizon) {
+        if (horizon < 0) {
+            throw new IllegalArgumentException("Prediction horizon can't be negative");
+        }
+        mTouchPrediction = horizon;
+        if (horizon > 0) {
+            mTouchResampling = true;
+        }
+        return this;
+    }
+    
+    /**
+     * <p>Define intermediate anchors the slider may rest at, besides shown and hidden states.
+     * Released slider settles to the nearest anchor, taking the release velocity into account,
+     * a fling moves it to the next anchor in the fling direction</p>
+     *
+     * @param visibleFractions visible part of the slider at each anchor, between 0 and 1 (0.5 = half)
+     * @see SlideUp.Listener.Anchor
+     */
+    public SlideUpBuilder withAnchors(float... visibleFractions) {
+        for (float fraction : visibleFractions) {
+            if (fraction <= 0 || fraction >= 1) {
+                throw new IllegalArgumentException("Anchor fraction must be between 0 and 1");
+            }
+        }
+        mAnchors = visibleFractions.clone();
+        return this;
+    }
+    
+    /**
+     * <p>Define visible height <b>(in px)</b> of the collapsed slider. With peek height
+     * the slider is never hidden completely, {@link SlideUp#hide()} collapses it to the peek</p>
+     *
+     * @param height <b>(default - <b color="#EF6C00">0</b>, no peek)</b>
+     */
+    public SlideUpBuilder withPeekHeightPx(float height) {
+        if (height < 0) {
+            throw new IllegalArgumentException("Peek height can't be negative");
+        }
+        mPeekHeight = height;
+        return this;
+    }
+    
+    /**
+     * <p>Define visible height <b>(in dp)</b> of the collapsed slider. With peek height
+     * the slider is never hidden completely, {@link SlideUp#hide()} collapses it to the peek</p>
+     *
+     * @param height <b>(default - <b color="#EF6C00">0</b>, no peek)</b>
+     */
+    public SlideUpBuilder withPeekHeightDp(float height) {
+        if (height < 0) {
+            throw new IllegalArgumentException("Peek height can't be negative");
+        }
+        mPeekHeight = height * mDensity;
+        return this;
+    }
+    
+    /**
+     * <p>Define views (the slider or its children) which start a slide when touched.
+     * When drag handles are defined, they replace the touchable area</p>
+     *
+     * @param handles views to drag the slider by
+     */
+    public SlideUpBuilder withDragHandles(@NonNull View... handles) {
+        for (View handle : handles) {
+            Internal.checkNonNull(handle, "Drag handle can't be null");
+        }
+        mDragHandles = handles.clone();
+        return this;
+    }
+    
+    /**
+     * <p>Define areas <b>(in px, in coordinates of the slider)</b> which start a slide when touched.
+     * When drag handles are defined, they replace the touchable area</p>
+     *
+     * @param rects areas to drag the slider by
+     */
+    public SlideUpBuilder withDragHandleRects(@NonNull Rect... rects) {
+        mDragHandleRects = new Rect[rects.length];
+        for (int i = 0; i < rects.length; i++) {
+            Internal.checkNonNull(rects[i], "Drag handle rect can't be null");
+            mDragHandleRects[i] = new Rect(rects[i]);
+        }
+        return this;
+    }
+    
+    /**
+     * <p>Define children of the slider which never start a slide, e.g. interactive controls
+     * inside of the touchable area or of a drag handle</p>
+     *
+     * @param exclusions views excluded from sliding
+     */
+    public SlideUpBuilder withTouchExclusions(@NonNull View... exclusions) {
+        for (View exclusion : exclusions) {
+            Internal.checkNonNull(exclusion, "Excluded view can't be null");
+        }
+        mTouchExclusions = exclusions.clone();
+        return this;
+    }
+    
+    /**
+     * <p>Define scrim which dims the host view while the slider is visible, alpha of the scrim follows
+     * the visible part of the slider. Scrim is drawn over the host and all its children, so the host
+     * should be a view behind the slider, not its parent. Scrim is drawn since <b>API 18</b></p>
+     *
+     * @param host  view to draw the scrim over
+     * @param color color of the scrim while the slider is shown
+     */
+    public SlideUpBuilder withScrim(@NonNull View host, @ColorInt int color) {
+        return withScrim(host, color, 1f, null);
+    }
+    
+    /**
+     * <p>Define scrim which dims the host view while the slider is visible</p>
+     *
+     * @param host     view to draw the scrim over
+     * @param color    color of the scrim
+     * @param maxAlpha alpha of the scrim while the slider is shown, multiplied by the alpha of the color
+     * @param curve    maps visible fraction of the slider <b color="#EF6C00">(0 = HIDDEN, 1 = SHOWED)</b>
+     *                 to the fraction of max alpha <b>(default - <b color="#EF6C00">linear</b>)</b>
+     * @see #withScrim(View, int)
+     */
+    public SlideUpBuilder withScrim(@NonNull View host, @ColorInt int color,
+                                    @FloatRange(from = 0, to = 1) float maxAlpha, @Nullable TimeInterpolator curve) {
+        Internal.checkNonNull(host, "Scrim host can't be null");
+        if (maxAlpha < 0 || maxAlpha > 1) {
+            throw new IllegalArgumentException("Scrim alpha must be in range [0, 1]");
+        }
+        ViewParent sliderParent = mSliderView != null ? mSliderView.getParent() : mLazyContent.getParent();
+        for (ViewParent parent = sliderParent; parent != null; parent = parent.getParent()) {
+            if (parent == host) {
+                throw new IllegalArgumentException("Scrim host can't contain the slider, the slider would be dimmed too");
+            }
+        }
+        mScrimHost = host;
+        mScrimColor = color;
+        mScrimMaxAlpha = maxAlpha;
+        mScrimCurve = curve;
+        return this;
+    }
+    
+    /**
+     * <p>Bind property of another view to the slide progress, e.g. to fade out a button while
+     * the slider is shown. All bindings are applied in one pass on each change of percents,
+     * unchanged values are not written, and bound views share hardware layers with the slider
+     * if {@link #withHardwareLayers(boolean)} is enabled</p>
+     *
+     * @param target      view to change
+     * @param property    property to change, e.g. {@link View#ALPHA} or {@link View#TRANSLATION_Y}
+     * @param fromPercent percents at which the property has the <b>fromValue</b>
+     *                    <b color="#EF6C00">(100 = HIDDEN, 0 = SHOWED)</b>
+     * @param toPercent   percents at which the property has the <b>toValue</b>
+     * @param fromValue   value of the property at <b>fromPercent</b> and beyond
+     * @param toValue     value of the property at <b>toPercent</b> and beyond
+     */
+    public SlideUpBuilder withBinding(@NonNull View target, @NonNull Property<View, Float> property,
+                                      float fromPercent, float toPercent, float fromValue, float toValue) {
+        Internal.checkNonNull(target, "Bound view can't be null");
+        Internal.checkNonNull(property, "Bound property can't be null");
+        if (fromPercent == toPercent) {
+            throw new IllegalArgumentException("Binding percent range can't be empty");
+        }
+        mBindings.add(new PropertyBindings.Binding(target, property, fromPercent, toPercent, fromValue, toValue));
+        return this;
+    }
+    
     /**
      * <p>Build the SlideUp and add behavior to view</p>
      */
@@ -0,0 +1,169 @@
+package com.mancj.slideup;
+
+import android.os.Build;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+
+/**
+ * <p>Coordinates several {@link SlideUp}s. Animations of all members run on one shared frame callback,
+ * so panels shown and hidden together start and move in the same frames</p>
+ * <p>Frame sharing works on {@link android.os.Build.VERSION_CODES#JELLY_BEAN} and above</p>
+ */
+public final class SlideUpGroup {
+    private final ArrayList<SlideUp> mMembers = new ArrayList<>();
+    private final FrameDriver mFrameDriver;
+    private boolean mExclusive = false;
+    
+    public SlideUpGroup() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mFrameDriver = new FrameDriver();
+        } else {
+            mFrameDriver = null;
+        }
+    }
+    
+    /**
+     * <p>Add SlideUp to this group, SlideUp can be a member of one group only</p>
+     */
+    public SlideUpGroup add(@NonNull SlideUp slideUp) {
+        Internal.checkNonNull(slideUp, "SlideUp can't be null");
+        if (mMembers.contains(slideUp)) return this;
+        if (slideUp.getGroup() != null) {
+            throw new IllegalStateException("SlideUp already belongs to another group");
+        }
+        mMembers.add(slideUp);
+        slideUp.setGroup(this, mFrameDriver);
+        return this;
+    }
+    
+    /**
+     * <p>Remove SlideUp from this group, its animations run on its own animator again</p>
+     */
+    public SlideUpGroup remove(@NonNull SlideUp slideUp) {
+        if (mMembers.remove(slideUp)) {
+            slideUp.setGroup(null, null);
+        }
+        return this;
+    }
+    
+    /**
+     * <p>Turning on/off mutual exclusion, when enabled showing any member hides all others</p>
+     *
+     * @param exclusive <b>(default - <b color="#EF6C00">false</b>)</b>
+     */
+    public SlideUpGroup setExclusive(boolean exclusive) {
+        mExclusive = exclusive;
+        return this;
+    }
+    
+    /**
+     * <p>Returns current status of mutual exclusion</p>
+     */
+    public boolean isExclusive() {
+        return mExclusive;
+    }
+    
+    /**
+     * <p>Start a transaction, its operations are applied together by {@link Transaction#commit()}</p>
+     */
+    public Transaction begin() {
+        return new Transaction();
+    }
+    
+    void onMemberShowing(SlideUp member) {
+        if (!mExclusive) return;
+        for (int i = 0; i < mMembers.size(); i++) {
+            SlideUp other = mMembers.get(i);
+            if (other != member && !other.isCollapsed()) {
+                other.hide();
+            }
+        }
+    }
+    
+    /**
+     * <p>Set of show/hide operations started in the same frame</p>
+     */
+    public final class Transaction {
+        private static final int SHOW = 0;
+        private static final int HIDE = 1;
+        private static final int SHOW_IMMEDIATELY = 2;
+        private static final int HIDE_IMMEDIATELY = 3;
+        
+        private final ArrayList<SlideUp> mTargets = new ArrayList<>();
+        private final ArrayList<Integer> mOperations = new ArrayList<>();
+        private boolean mCommitted;
+        
+        private Transaction() {
+        }
+        
+        /**
+         * <p>Show member with animation</p>
+         */
+        public Transaction show(@NonNull SlideUp slideUp) {
+            return add(slideUp, SHOW);
+        }
+        
+        /**
+         * <p>Hide member with animation</p>
+         */
+        public Transaction hide(@NonNull SlideUp slideUp) {
+            return add(slideUp, HIDE);
+        }
+        
+        /**
+         * <p>Show member without animation</p>
+         */
+        public Transaction showImmediately(@NonNull SlideUp slideUp) {
+            return add(slideUp, SHOW_IMMEDIATELY);
+        }
+        
+        /**
+         * <p>Hide member without animation</p>
+         */
+        public Transaction hideImmediately(@NonNull SlideUp slideUp) {
+            return add(slideUp, HIDE_IMMEDIATELY);
+        }
+        
+        /**
+         * <p>Apply all operations in the order they were added</p>
+         */
+        public void commit() {
+            if (mCommitted) {
+                throw new IllegalStateException("Transaction is already committed");
+            }
+            mCommitted = true;
+            // animations take their start time from the next frame of the shared driver,
+            // so all of them start together
+            for (int i = 0; i < mTargets.size(); i++) {
+                SlideUp target = mTargets.get(i);
+                switch (mOperations.get(i)) {
+                    case SHOW:
+                        target.show();
+                        break;
+                    case HIDE:
+                        target.hide();
+                        break;
+                    case SHOW_IMMEDIATELY:
+                        target.showImmediately();
+                        break;
+                    case HIDE_IMMEDIATELY:
+                        target.hideImmediately();
+                        break;
+                }
+            }
+        }
+        
+        private Transaction add(SlideUp slideUp, int operation) {
+            if (mCommitted) {
+                throw new IllegalStateException("Transaction is already committed");
+            }
+            if (!mMembers.contains(slideUp)) {
+                throw new IllegalArgumentException("SlideUp is not a member of this group");
+            }
+            mTargets.add(slideUp);
+            mOperations.add(operation);
+            return this;
+        }
+    }
+}
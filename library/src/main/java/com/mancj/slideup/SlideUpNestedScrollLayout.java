@@ -0,0 +1,133 @@
+package com.mancj.slideup;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.Build;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import static android.view.Gravity.BOTTOM;
+import static android.view.Gravity.END;
+import static android.view.Gravity.START;
+import static android.view.Gravity.TOP;
+
+/**
+ * <p>Container for scrolling content of the slider ({@link android.widget.ScrollView}, RecyclerView, etc.)
+ * which takes part in nested scrolling: content scrolls until it reaches its edge, then the rest
+ * of the same gesture and its fling move the slider, and vice versa</p>
+ * <p>Use it as the slider view, or as its child connected by {@link #setSlideUp(SlideUp)}.
+ * Works on {@link android.os.Build.VERSION_CODES#LOLLIPOP} and above
+ * with content which supports nested scrolling</p>
+ */
+public class SlideUpNestedScrollLayout extends FrameLayout {
+    private SlideUp mSlideUp;
+    private boolean mFlung;
+    
+    public SlideUpNestedScrollLayout(Context context) {
+        super(context);
+    }
+    
+    public SlideUpNestedScrollLayout(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+    
+    public SlideUpNestedScrollLayout(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+    }
+    
+    /**
+     * <p>Define SlideUp which receives scroll left over by the content,
+     * it is connected automatically if this layout is the slider view</p>
+     */
+    public void setSlideUp(@Nullable SlideUp slideUp) {
+        mSlideUp = slideUp;
+    }
+    
+    @Override
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public boolean onStartNestedScroll(View child, View target, int nestedScrollAxes) {
+        if (mSlideUp == null || !mSlideUp.isGesturesEnabled()) return false;
+        int axis = isVertical() ? SCROLL_AXIS_VERTICAL : SCROLL_AXIS_HORIZONTAL;
+        return (nestedScrollAxes & axis) != 0;
+    }
+    
+    @Override
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public void onNestedScrollAccepted(View child, View target, int axes) {
+        super.onNestedScrollAccepted(child, target, axes);
+        mFlung = false;
+    }
+    
+    @Override
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public void onNestedPreScroll(View target, int dx, int dy, int[] consumed) {
+        float delta = toSlideDelta(dx, dy);
+        // slider is shown first, then the content scrolls
+        if (delta < 0) {
+            float slid = mSlideUp.onNestedDrag(delta);
+            if (isVertical()) {
+                consumed[1] = Math.round(fromSlideDelta(slid));
+            } else {
+                consumed[0] = Math.round(fromSlideDelta(slid));
+            }
+        }
+    }
+    
+    @Override
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public void onNestedScroll(View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
+        float delta = toSlideDelta(dxUnconsumed, dyUnconsumed);
+        // content reached its edge, the rest hides the slider
+        if (delta > 0) {
+            mSlideUp.onNestedDrag(delta);
+        }
+    }
+    
+    @Override
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public boolean onNestedPreFling(View target, float velocityX, float velocityY) {
+        mFlung = mSlideUp.onNestedDragEnd(toSlideDelta(velocityX, velocityY));
+        return mFlung;
+    }
+    
+    @Override
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public void onStopNestedScroll(View child) {
+        super.onStopNestedScroll(child);
+        if (!mFlung) {
+            mSlideUp.onNestedDragEnd(0);
+        }
+        mFlung = false;
+    }
+    
+    private boolean isVertical() {
+        int gravity = mSlideUp.getStartGravity();
+        return gravity == TOP || gravity == BOTTOM;
+    }
+    
+    /**
+     * <p>Converts scroll delta (or velocity) of the content to the slider animation value delta,
+     * positive values are directed to the hidden state</p>
+     */
+    private float toSlideDelta(float dx, float dy) {
+        switch (mSlideUp.getStartGravity()) {
+            case TOP:
+                return dy;
+            case BOTTOM:
+                return -dy;
+            case START:
+                return dx;
+            case END:
+                return -dx;
+            default:
+                return 0;
+        }
+    }
+    
+    private float fromSlideDelta(float delta) {
+        int gravity = mSlideUp.getStartGravity();
+        return gravity == BOTTOM || gravity == END ? -delta : delta;
+    }
+}
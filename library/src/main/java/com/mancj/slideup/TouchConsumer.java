@@ -1,33 +1,59 @@
 package com.mancj.slideup;
 
+import android.annotation.TargetApi;
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.Choreographer;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.animation.AnimationUtils;
+
+import com.mancj.slideup.core.DragGesture;
+import com.mancj.slideup.core.PointerResampler;
+import com.mancj.slideup.core.SlideEngine;
 
 /**
  * @author pa.gulko zTrap (12.07.2017)
  */
-class TouchConsumer {
+abstract class TouchConsumer {
+    private static final long MAX_RESAMPLE_EXTRAPOLATION = 8;
+    
     SlideUpBuilder mBuilder;
     AnimationProcessor mAnimationProcessor;
+    SlideEngine mSlideEngine;
+    TouchRegions mTouchRegions;
 
     boolean mCanSlide = true;
     LoggerNotifier mNotifier;
     
-    float mViewHeight;
-    float mViewWidth;
-    
-    float mStartPositionY;
-    float mStartPositionX;
     volatile float mPrevPositionY;
     volatile float mPrevPositionX;
-    float mViewStartPositionY;
-    float mViewStartPositionX;
+    final DragGesture mDragGesture;
+    
+    private VelocityTracker mVelocityTracker;
+    private final float mMaxFlingVelocity;
+    
+    private final PointerResampler mPointerResampler = new PointerResampler();
+    private final Rect mHitRect = new Rect();
+    
+    private DragFrameCallback mDragFrameCallback;
+    private boolean mDragPending;
+    private float mPendingTranslation;
+    private float mPendingPercent;
     
     TouchConsumer(SlideUpBuilder builder, LoggerNotifier notifier,
-                  AnimationProcessor animationProcessor){
+                  AnimationProcessor animationProcessor, SlideEngine slideEngine, TouchRegions touchRegions){
         mBuilder = builder;
         mAnimationProcessor = animationProcessor;
+        mSlideEngine = slideEngine;
+        mTouchRegions = touchRegions;
         mNotifier = notifier;
+        mDragGesture = new DragGesture(slideEngine);
+        ViewConfiguration configuration = ViewConfiguration.get(builder.mSliderView.getContext());
+        mMaxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        slideEngine.setMinFlingVelocity(configuration.getScaledMinimumFlingVelocity());
     }
     
     int getEnd(){
@@ -57,4 +83,177 @@ class TouchConsumer {
     boolean touchFromAlsoSlide(View touchedView, MotionEvent event) {
         return touchedView == mBuilder.mAlsoScrollView;
     }
+    
+    /**
+     * <p>Decides whether the touch down can start a slide</p>
+     *
+     * @param inTouchableArea true if the touch is inside of the touchable area,
+     *                        used when no drag handles are defined
+     */
+    boolean canSlideFrom(View touchedView, MotionEvent event, boolean inTouchableArea) {
+        if (touchFromAlsoSlide(touchedView, event)) return true;
+        float x = event.getX();
+        float y = event.getY();
+        if (mTouchRegions.isExcluded(x, y)) return false;
+        if (mTouchRegions.hasHandles()) return mTouchRegions.isInHandle(x, y);
+        return inTouchableArea;
+    }
+    
+    boolean isUpEventInView(MotionEvent event) {
+        return Internal.isUpEventInView(mBuilder.mSliderView, event, mHitRect);
+    }
+    
+    /**
+     * <p>Returns horizontal screen position of the pointer to drag the slider to</p>
+     */
+    float pointerX(MotionEvent event) {
+        return pointer(event, event.getRawX(), event.getX(), false);
+    }
+    
+    /**
+     * <p>Returns vertical screen position of the pointer to drag the slider to</p>
+     */
+    float pointerY(MotionEvent event) {
+        return pointer(event, event.getRawY(), event.getY(), true);
+    }
+    
+    /**
+     * <p>With touch resampling enabled, all batched samples of the event are used to estimate
+     * the pointer position at the current frame time, optionally predicted a bit ahead</p>
+     */
+    private float pointer(MotionEvent event, float raw, float local, boolean vertical) {
+        if (!mBuilder.mTouchResampling) {
+            return raw;
+        }
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            mPointerResampler.reset();
+        }
+        // slider does not move between batched samples, so the offset is the same for all of them
+        float offset = raw - local;
+        int historySize = event.getHistorySize();
+        for (int i = 0; i < historySize; i++) {
+            float historical = vertical ? event.getHistoricalY(i) : event.getHistoricalX(i);
+            mPointerResampler.addSample(event.getHistoricalEventTime(i), historical + offset);
+        }
+        mPointerResampler.addSample(event.getEventTime(), raw);
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            return raw;
+        }
+        long prediction = mBuilder.mTouchPrediction;
+        long frameTime = AnimationUtils.currentAnimationTimeMillis();
+        return mPointerResampler.resample(frameTime + prediction, MAX_RESAMPLE_EXTRAPOLATION + prediction);
+    }
+    
+    /**
+     * <p>Moves the slider along the slide axis</p>
+     */
+    abstract void setTranslation(float translation);
+    
+    /**
+     * <p>Applies drag position and notifies listeners, immediately or on the next frame
+     * if drag coalescing is enabled. Only the latest position of a frame is applied</p>
+     */
+    void applyDrag(float translation, float percent) {
+        if (mBuilder.mDragCoalescing && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mPendingTranslation = translation;
+            mPendingPercent = percent;
+            if (!mDragPending) {
+                mDragPending = true;
+                postDragFrame();
+            }
+            return;
+        }
+        mNotifier.notifyPercentChanged(percent);
+        setTranslation(translation);
+    }
+    
+    /**
+     * <p>Applies the drag position waiting for the next frame, if any</p>
+     */
+    void flushDrag() {
+        if (!mDragPending) return;
+        mDragPending = false;
+        removeDragFrame();
+        mNotifier.notifyPercentChanged(mPendingPercent);
+        setTranslation(mPendingTranslation);
+    }
+    
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postDragFrame() {
+        if (mDragFrameCallback == null) {
+            mDragFrameCallback = new DragFrameCallback();
+        }
+        Choreographer.getInstance().postFrameCallback(mDragFrameCallback);
+    }
+    
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void removeDragFrame() {
+        Choreographer.getInstance().removeFrameCallback(mDragFrameCallback);
+    }
+    
+    /**
+     * <p>Feeds the event into the pooled {@link VelocityTracker}, using screen coordinates,
+     * because the slider itself is moving under the finger</p>
+     */
+    void trackMovement(MotionEvent event) {
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            recycleVelocityTracker();
+            mVelocityTracker = VelocityTracker.obtain();
+        }
+        if (mVelocityTracker == null) return;
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+        event.offsetLocation(offsetX, offsetY);
+        mVelocityTracker.addMovement(event);
+        event.offsetLocation(-offsetX, -offsetY);
+    }
+    
+    float computeVelocityX() {
+        if (mVelocityTracker == null) return 0;
+        mVelocityTracker.computeCurrentVelocity(1000, mMaxFlingVelocity);
+        return mVelocityTracker.getXVelocity();
+    }
+    
+    float computeVelocityY() {
+        if (mVelocityTracker == null) return 0;
+        mVelocityTracker.computeCurrentVelocity(1000, mMaxFlingVelocity);
+        return mVelocityTracker.getYVelocity();
+    }
+    
+    void recycleVelocityTracker() {
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+    
+    /**
+     * <p>Chooses target and duration of the settle animation from the release velocity and the remaining distance</p>
+     *
+     * @param from     current animation value (0 = SHOWED)
+     * @param velocity release velocity in px/s, positive values are directed to the HIDDEN state
+     */
+    void settle(float from, float velocity) {
+        float to = mSlideEngine.findSettleTarget(from, velocity);
+        int duration = mSlideEngine.computeSettleDuration(from, to, velocity, mBuilder.mAutoSlideDuration);
+        mAnimationProcessor.setValuesAndStart(from, to, duration, velocity);
+    }
+    
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private class DragFrameCallback implements Choreographer.FrameCallback {
+        
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!mBuilder.mTracing) {
+                flushDrag();
+                return;
+            }
+            SlideTrace.beginSection(SlideTrace.DRAG_FRAME);
+            try {
+                flushDrag();
+            } finally {
+                SlideTrace.endSection();
+            }
+        }
+    }
 }
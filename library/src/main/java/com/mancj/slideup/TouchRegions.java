@@ -0,0 +1,98 @@
+package com.mancj.slideup;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * <p>Drag handles and excluded areas of the slider in its own coordinates.
+ * Bounds are computed on every layout of the slider, so hit tests are plain comparisons</p>
+ */
+class TouchRegions implements View.OnLayoutChangeListener {
+    private final View mSliderView;
+    private final View[] mHandleViews;
+    private final Rect[] mHandleRects;
+    private final View[] mExclusionViews;
+    
+    /**
+     * left, top, right, bottom of every region
+     */
+    private final int[] mHandleBounds;
+    private final int[] mExclusionBounds;
+    private final Rect mTempRect = new Rect();
+    
+    TouchRegions(View sliderView, View[] handleViews, Rect[] handleRects, View[] exclusionViews) {
+        if ((handleViews.length > 0 || exclusionViews.length > 0) && !(sliderView instanceof ViewGroup)) {
+            throw new IllegalArgumentException("Drag handles and exclusions must be children of the slider");
+        }
+        mSliderView = sliderView;
+        mHandleViews = handleViews;
+        mHandleRects = handleRects;
+        mExclusionViews = exclusionViews;
+        mHandleBounds = new int[(handleViews.length + handleRects.length) * 4];
+        mExclusionBounds = new int[exclusionViews.length * 4];
+        int offset = handleViews.length * 4;
+        for (Rect rect : handleRects) {
+            offset = put(mHandleBounds, offset, rect);
+        }
+    }
+    
+    boolean hasHandles() {
+        return mHandleBounds.length > 0;
+    }
+    
+    boolean isInHandle(float x, float y) {
+        return contains(mHandleBounds, x, y);
+    }
+    
+    boolean isExcluded(float x, float y) {
+        return contains(mExclusionBounds, x, y);
+    }
+    
+    @Override
+    public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                               int oldLeft, int oldTop, int oldRight, int oldBottom) {
+        update();
+    }
+    
+    void update() {
+        int offset = 0;
+        for (View view : mHandleViews) {
+            offset = put(mHandleBounds, offset, boundsOf(view));
+        }
+        offset = 0;
+        for (View view : mExclusionViews) {
+            offset = put(mExclusionBounds, offset, boundsOf(view));
+        }
+    }
+    
+    private Rect boundsOf(View view) {
+        Rect rect = mTempRect;
+        if (view.getVisibility() == View.GONE) {
+            rect.setEmpty();
+            return rect;
+        }
+        rect.set(0, 0, view.getWidth(), view.getHeight());
+        if (view != mSliderView) {
+            ((ViewGroup) mSliderView).offsetDescendantRectToMyCoords(view, rect);
+        }
+        return rect;
+    }
+    
+    private static int put(int[] bounds, int offset, Rect rect) {
+        bounds[offset] = rect.left;
+        bounds[offset + 1] = rect.top;
+        bounds[offset + 2] = rect.right;
+        bounds[offset + 3] = rect.bottom;
+        return offset + 4;
+    }
+    
+    private static boolean contains(int[] bounds, float x, float y) {
+        for (int i = 0; i < bounds.length; i += 4) {
+            if (x >= bounds[i] && y >= bounds[i + 1] && x < bounds[i + 2] && y < bounds[i + 3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package com.mancj.slideup;
+
+import android.annotation.TargetApi;
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.View;
+
+/**
+ * <p>Hides the slider of {@link SlideUp.HideMode#TRANSLATION} mode without changing its visibility,
+ * so the parent is never laid out again. Content is clipped away since <b>API 18</b>, so nothing of it
+ * is drawn, and it is hidden from accessibility services since <b>API 19</b></p>
+ */
+class TranslationHider {
+    private final View mView;
+    private final Rect mEmptyBounds = new Rect();
+    private boolean mHidden;
+    private Rect mClipBounds;
+    private int mImportantForAccessibility;
+    
+    TranslationHider(View view) {
+        mView = view;
+    }
+    
+    void hide() {
+        if (mHidden) return;
+        mHidden = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            clip();
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            hideFromAccessibility();
+        }
+    }
+    
+    void show() {
+        if (!mHidden) return;
+        mHidden = false;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            unclip();
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            showToAccessibility();
+        }
+    }
+    
+    /**
+     * <p>Clip bounds are a property of the display list, changing them does not record the content again</p>
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void clip() {
+        mClipBounds = mView.getClipBounds();
+        mView.setClipBounds(mEmptyBounds);
+    }
+    
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void unclip() {
+        mView.setClipBounds(mClipBounds);
+        mClipBounds = null;
+    }
+    
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private void hideFromAccessibility() {
+        mImportantForAccessibility = mView.getImportantForAccessibility();
+        mView.setImportantForAccessibility(View.IMPORTANT_FOR_ACCESSIBILITY_NO_HIDE_DESCENDANTS);
+    }
+    
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private void showToAccessibility() {
+        mView.setImportantForAccessibility(mImportantForAccessibility);
+    }
+}
@@ -3,53 +3,56 @@ package com.mancj.slideup;
 import android.view.MotionEvent;
 import android.view.View;
 
+import com.mancj.slideup.core.SlideEngine;
+
 /**
  * @author pa.gulko zTrap (05.07.2017)
  */
 class VerticalTouchConsumer extends TouchConsumer {
-    private boolean mGoingUp = false;
-    private boolean mGoingDown = false;
     
-    VerticalTouchConsumer(SlideUpBuilder builder, LoggerNotifier notifier, AnimationProcessor animationProcessor) {
-        super(builder, notifier, animationProcessor);
+    VerticalTouchConsumer(SlideUpBuilder builder, LoggerNotifier notifier, AnimationProcessor animationProcessor,
+                  SlideEngine slideEngine, TouchRegions touchRegions) {
+        super(builder, notifier, animationProcessor, slideEngine, touchRegions);
+    }
+    
+    @Override
+    void setTranslation(float translation) {
+        mBuilder.mSliderView.setTranslationY(translation);
     }
     
     boolean consumeBottomToTop(View touchedView, MotionEvent event){
         float touchedArea = event.getY();
+        trackMovement(event);
         switch (event.getActionMasked()){
             case MotionEvent.ACTION_DOWN:
-                mViewHeight = mBuilder.mSliderView.getHeight();
-                mStartPositionY = event.getRawY();
-                mViewStartPositionY = mBuilder.mSliderView.getTranslationY();
-                mCanSlide = touchFromAlsoSlide(touchedView, event);
-                mCanSlide |= mBuilder.mTouchableArea >= touchedArea;
+                mDragGesture.begin(pointerY(event), mBuilder.mSliderView.getTranslationY(), false);
+                mCanSlide = canSlideFrom(touchedView, event, mBuilder.mTouchableArea >= touchedArea);
+                if (mCanSlide) {
+                    mNotifier.notifyGestureStarted();
+                }
                 break;
             case MotionEvent.ACTION_MOVE:
-                float difference = event.getRawY() - mStartPositionY;
-                float moveTo = mViewStartPositionY + difference;
-                float percents = moveTo * 100 / mBuilder.mSliderView.getHeight();
-                calculateDirection(event);
-                
-                if (moveTo > 0 && mCanSlide){
-                    mNotifier.notifyPercentChanged(percents);
-                    mBuilder.mSliderView.setTranslationY(moveTo);
+                if (mDragGesture.move(pointerY(event)) && mCanSlide){
+                    applyDrag(mDragGesture.getTranslation(), mDragGesture.getPercent());
                 }
                 break;
             case MotionEvent.ACTION_UP:
-                float slideAnimationFrom = mBuilder.mSliderView.getTranslationY();
-                if (slideAnimationFrom == mViewStartPositionY){
-                    return !Internal.isUpEventInView(mBuilder.mSliderView, event);
-                }
-                boolean scrollableAreaConsumed = mBuilder.mSliderView.getTranslationY() > mBuilder.mSliderView.getHeight() / 5;
-                
-                if (scrollableAreaConsumed && mGoingDown){
-                    mAnimationProcessor.setValuesAndStart(slideAnimationFrom, mBuilder.mSliderView.getHeight());
-                } else {
-                    mAnimationProcessor.setValuesAndStart(slideAnimationFrom, 0);
+                flushDrag();
+                float velocity = mDragGesture.toValue(computeVelocityY());
+                recycleVelocityTracker();
+                float translation = mBuilder.mSliderView.getTranslationY();
+                if (!mDragGesture.isMoved(translation)){
+                    mNotifier.notifyGestureFinished();
+                    return !isUpEventInView(event);
                 }
+                settle(mDragGesture.toValue(translation), velocity);
+                mNotifier.notifyGestureFinished();
                 mCanSlide = true;
-                mGoingUp = false;
-                mGoingDown = false;
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                flushDrag();
+                mNotifier.notifyGestureFinished();
+                recycleVelocityTracker();
                 break;
         }
         mPrevPositionY = event.getRawY();
@@ -59,47 +62,41 @@ class VerticalTouchConsumer extends TouchConsumer {
     
     boolean consumeTopToBottom(View touchedView, MotionEvent event){
         float touchedArea = event.getY();
+        trackMovement(event);
         switch (event.getActionMasked()){
             case MotionEvent.ACTION_DOWN:
-                mViewHeight = mBuilder.mSliderView.getHeight();
-                mStartPositionY = event.getRawY();
-                mViewStartPositionY = mBuilder.mSliderView.getTranslationY();
-                mCanSlide = touchFromAlsoSlide(touchedView, event);
-                mCanSlide |= getBottom() - mBuilder.mTouchableArea <= touchedArea;
+                mDragGesture.begin(pointerY(event), mBuilder.mSliderView.getTranslationY(), true);
+                mCanSlide = canSlideFrom(touchedView, event, getBottom() - mBuilder.mTouchableArea <= touchedArea);
+                if (mCanSlide) {
+                    mNotifier.notifyGestureStarted();
+                }
                 break;
             case MotionEvent.ACTION_MOVE:
-                float difference = event.getRawY() - mStartPositionY;
-                float moveTo = mViewStartPositionY + difference;
-                float percents = moveTo * 100 / -mBuilder.mSliderView.getHeight();
-                calculateDirection(event);
-            
-                if (moveTo < 0 && mCanSlide){
-                    mNotifier.notifyPercentChanged(percents);
-                    mBuilder.mSliderView.setTranslationY(moveTo);
+                if (mDragGesture.move(pointerY(event)) && mCanSlide){
+                    applyDrag(mDragGesture.getTranslation(), mDragGesture.getPercent());
                 }
                 break;
             case MotionEvent.ACTION_UP:
-                float slideAnimationFrom = -mBuilder.mSliderView.getTranslationY();
-                if (slideAnimationFrom == mViewStartPositionY){
-                    return !Internal.isUpEventInView(mBuilder.mSliderView, event);
-                }
-                boolean scrollableAreaConsumed = mBuilder.mSliderView.getTranslationY() < -mBuilder.mSliderView.getHeight() / 5;
-            
-                if (scrollableAreaConsumed && mGoingUp){
-                    mAnimationProcessor.setValuesAndStart(slideAnimationFrom, mBuilder.mSliderView.getHeight() + mBuilder.mSliderView.getTop());
-                }else {
-                    mAnimationProcessor.setValuesAndStart(slideAnimationFrom, 0);
+                flushDrag();
+                float velocity = mDragGesture.toValue(computeVelocityY());
+                recycleVelocityTracker();
+                float translation = mBuilder.mSliderView.getTranslationY();
+                if (!mDragGesture.isMoved(translation)){
+                    mNotifier.notifyGestureFinished();
+                    return !isUpEventInView(event);
                 }
+                settle(mDragGesture.toValue(translation), velocity);
+                mNotifier.notifyGestureFinished();
                 mCanSlide = true;
                 break;
+            case MotionEvent.ACTION_CANCEL:
+                flushDrag();
+                mNotifier.notifyGestureFinished();
+                recycleVelocityTracker();
+                break;
         }
         mPrevPositionY = event.getRawY();
         mPrevPositionX = event.getRawX();
         return true;
     }
-
-    private void calculateDirection(MotionEvent event) {
-        mGoingUp = mPrevPositionY - event.getRawY() > 0;
-        mGoingDown = mPrevPositionY - event.getRawY() < 0;
-    }
 }
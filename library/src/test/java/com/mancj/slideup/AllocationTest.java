@@ -0,0 +1,394 @@
+package com.mancj.slideup;
+
+import android.animation.ValueAnimator;
+import android.app.Activity;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.animation.AnimationUtils;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.RealObject;
+import org.robolectric.shadows.ShadowDrawable;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <p>Hot paths of the slider must not allocate once warmed up: moves of a drag, frames of a settle
+ * on every animation backend and the dispatch of slide events. Frames enter through the animator
+ * and the frame driver, on a fake animation clock. Allocations are counted by the JVM for the current thread</p>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27, shadows = {AllocationTest.ShadowScrimDrawable.class,
+        AllocationTest.ShadowFixedVelocityTracker.class})
+public class AllocationTest {
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final int SLIDER_HEIGHT = 400;
+    private static final int MOVES = 40;
+    private static final int FRAMES = 60;
+    private static final int WARM_UP = 5;
+    private static final int DURATION = 2000;
+    // short frames keep the default spring moving through all the measured ones
+    private static final long FRAME_MILLIS = 2;
+    private static final long NANOS_PER_MILLI = 1000000;
+    
+    private FrameLayout mRoot;
+    private View mContent;
+    private View mSlider;
+    private View mBound;
+    private final CountingListener[] mListeners = new CountingListener[4];
+    private long mClock = 1000;
+    
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        mRoot = new FrameLayout(activity);
+        mContent = new View(activity);
+        mSlider = new View(activity);
+        mBound = new View(activity);
+        mRoot.addView(mContent, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT));
+        mRoot.addView(mBound, new FrameLayout.LayoutParams(100, 100));
+        mRoot.addView(mSlider, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, SLIDER_HEIGHT,
+                Gravity.BOTTOM));
+        activity.setContentView(mRoot);
+        for (int i = 0; i < mListeners.length; i++) {
+            mListeners[i] = new CountingListener();
+        }
+    }
+    
+    @Test
+    public void dragMovesDoNotAllocate() {
+        final SlideUp slideUp = build(new SlideUpBuilder(mSlider));
+        final MotionEvent[] moves = new MotionEvent[MOVES];
+        for (int i = 0; i < MOVES; i++) {
+            moves[i] = obtain(MotionEvent.ACTION_MOVE, i + 1, 10 + (i + 1) * SLIDER_HEIGHT / MOVES);
+        }
+        MotionEvent down = obtain(MotionEvent.ACTION_DOWN, 0, 10);
+        MotionEvent up = obtain(MotionEvent.ACTION_UP, MOVES + 1, 10 + SLIDER_HEIGHT);
+        for (int i = 0; i < WARM_UP; i++) {
+            slideUp.showImmediately();
+            slideUp.onTouch(mSlider, down);
+            drag(slideUp, moves);
+            slideUp.onTouch(mSlider, up);
+        }
+        slideUp.showImmediately();
+        slideUp.onTouch(mSlider, down);
+        int slides = mListeners[0].mSlides;
+        
+        long allocated = measure(new Runnable() {
+            @Override
+            public void run() {
+                drag(slideUp, moves);
+            }
+        });
+        
+        slideUp.onTouch(mSlider, up);
+        assertTrue("Drag didn't move the slider", mListeners[0].mSlides - slides >= MOVES);
+        assertEquals("Bytes allocated by " + MOVES + " drag moves", 0, allocated);
+    }
+    
+    @Test
+    public void valueAnimatorFramesDoNotAllocate() {
+        final SlideUp slideUp = build(new SlideUpBuilder(mSlider).withAutoSlideDuration(DURATION));
+        final ValueAnimator animator = getValueAnimator(slideUp);
+        Frames frames = new Frames() {
+            @Override
+            public void frame(int index) {
+                // delivers the frame to the update listener of the slider, like a pulse of the animator
+                animator.setCurrentPlayTime((long) DURATION * index / (FRAMES + 1));
+            }
+        };
+        assertSettleDoesNotAllocate(slideUp, frames, "value animator");
+    }
+    
+    @Test
+    public void choreographerFramesDoNotAllocate() {
+        final SlideUp slideUp = build(new SlideUpBuilder(mSlider)
+                .withAutoSlideDuration(DURATION)
+                .withAnimationBackend(SlideUp.AnimationBackend.CHOREOGRAPHER));
+        // the backend is created by the first settle
+        slideUp.hide();
+        slideUp.showImmediately();
+        final FrameDriver.Client backend = getChoreographerBackend(slideUp);
+        Frames frames = new Frames() {
+            @Override
+            public void frame(int index) {
+                backend.doFrame(mClock * NANOS_PER_MILLI);
+            }
+        };
+        assertSettleDoesNotAllocate(slideUp, frames, "choreographer");
+    }
+    
+    @Test
+    public void springFramesDoNotAllocate() {
+        final SlideUp slideUp = build(new SlideUpBuilder(mSlider).withSpring());
+        final AnimationProcessor processor = getAnimationProcessor(slideUp);
+        Frames frames = new Frames() {
+            @Override
+            public void frame(int index) {
+                processor.doFrame(mClock * NANOS_PER_MILLI);
+            }
+        };
+        assertSettleDoesNotAllocate(slideUp, frames, "spring");
+    }
+    
+    @Test
+    public void slideDispatchDoesNotAllocate() {
+        final SlideUp slideUp = build(new SlideUpBuilder(mSlider).withLoggingEnabled(true));
+        for (int i = 0; i < WARM_UP; i++) {
+            dispatch(slideUp);
+        }
+        int slides = mListeners[0].mSlides;
+        
+        long allocated = measure(new Runnable() {
+            @Override
+            public void run() {
+                dispatch(slideUp);
+            }
+        });
+        
+        assertEquals(FRAMES, mListeners[0].mSlides - slides);
+        assertEquals("Bytes allocated by " + FRAMES + " slide events", 0, allocated);
+    }
+    
+    private SlideUp build(SlideUpBuilder builder) {
+        SlideUp slideUp = builder
+                .withStartState(SlideUp.State.SHOWED)
+                .withStartGravity(Gravity.BOTTOM)
+                .withListeners(mListeners)
+                .withScrim(mContent, Color.BLACK)
+                .withBinding(mBound, View.ALPHA, 100, 0, 1, 0)
+                .build();
+        mRoot.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mRoot.layout(0, 0, WIDTH, HEIGHT);
+        mSlider.getViewTreeObserver().dispatchOnGlobalLayout();
+        assertEquals(SLIDER_HEIGHT, mSlider.getHeight());
+        // like on a device, invalidations between frames share one scheduled traversal
+        ShadowLooper.pauseMainLooper();
+        return slideUp;
+    }
+    
+    private static void drag(SlideUp slideUp, MotionEvent[] moves) {
+        for (MotionEvent move : moves) {
+            slideUp.onTouch(slideUp.getSliderView(), move);
+        }
+    }
+    
+    /**
+     * <p>Hides the slider and feeds frames of the settle, the last run is measured</p>
+     */
+    private void assertSettleDoesNotAllocate(SlideUp slideUp, Frames frames, String backend) {
+        for (int i = 0; i < WARM_UP; i++) {
+            slideUp.showImmediately();
+            slideUp.hide();
+            settle(frames);
+        }
+        slideUp.showImmediately();
+        slideUp.hide();
+        int slides = mListeners[0].mSlides;
+        
+        long allocated = settle(frames);
+        
+        assertTrue("Settle of the " + backend + " has finished before the last frame", slideUp.isAnimationRunning());
+        assertEquals(FRAMES, mListeners[0].mSlides - slides);
+        assertEquals("Bytes allocated by " + FRAMES + " " + backend + " frames", 0, allocated);
+    }
+    
+    /**
+     * <p>Animation clock is advanced before every frame, outside of the measured block</p>
+     *
+     * @return bytes allocated by the frames
+     */
+    private long settle(Frames frames) {
+        long allocated = 0;
+        try {
+            for (int i = 1; i <= FRAMES; i++) {
+                mClock += FRAME_MILLIS;
+                ReflectionHelpers.callStaticMethod(AnimationUtils.class, "lockAnimationClock",
+                        ReflectionHelpers.ClassParameter.from(long.class, mClock));
+                allocated += measure(frames, i);
+            }
+        } finally {
+            ReflectionHelpers.callStaticMethod(AnimationUtils.class, "unlockAnimationClock");
+        }
+        return allocated;
+    }
+    
+    private static AnimationProcessor getAnimationProcessor(SlideUp slideUp) {
+        return ReflectionHelpers.getField(slideUp, "mAnimationProcessor");
+    }
+    
+    private static ValueAnimator getValueAnimator(SlideUp slideUp) {
+        Object backend = ReflectionHelpers.getField(getAnimationProcessor(slideUp), "mValueAnimatorBackend");
+        return ReflectionHelpers.getField(backend, "mValueAnimator");
+    }
+    
+    private static FrameDriver.Client getChoreographerBackend(SlideUp slideUp) {
+        return ReflectionHelpers.getField(getAnimationProcessor(slideUp), "mChoreographerBackend");
+    }
+    
+    private static void dispatch(SlideUp slideUp) {
+        for (int i = 1; i <= FRAMES; i++) {
+            slideUp.notifyPercentChanged(100f * i / (FRAMES + 1));
+        }
+    }
+    
+    private static MotionEvent obtain(int action, int index, float y) {
+        long downTime = SystemClock.uptimeMillis();
+        return MotionEvent.obtain(downTime, downTime + index * 8, action, WIDTH / 2, y, 0);
+    }
+    
+    /**
+     * @return bytes allocated by the current thread while running the block, less the cost of measuring
+     */
+    private static long measure(final Runnable block) {
+        return measure(new Frames() {
+            @Override
+            public void frame(int index) {
+                block.run();
+            }
+        }, 0);
+    }
+    
+    /**
+     * @return bytes allocated by the current thread while running the frame, less the cost of measuring
+     */
+    private static long measure(Frames frames, int index) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long start = bean.getThreadAllocatedBytes(thread);
+        long overhead = bean.getThreadAllocatedBytes(thread) - start;
+        start = bean.getThreadAllocatedBytes(thread);
+        frames.frame(index);
+        return bean.getThreadAllocatedBytes(thread) - start - overhead;
+    }
+    
+    private interface Frames {
+        
+        void frame(int index);
+    }
+    
+    private static class CountingListener implements SlideUp.Listener.Events, SlideUp.Listener.Anchor {
+        int mSlides;
+        
+        @Override
+        public void onSlide(float percent) {
+            mSlides++;
+        }
+        
+        @Override
+        public void onVisibilityChanged(int visibility) {
+        }
+        
+        @Override
+        public void onAnchorChanged(int anchor) {
+        }
+    }
+    
+    /**
+     * <p>Robolectric invalidates drawables through reflection, which allocates. The platform
+     * implementation only calls back to the host, so the scrim is measured with that</p>
+     */
+    @Implements(ColorDrawable.class)
+    public static class ShadowScrimDrawable extends ShadowDrawable {
+        @RealObject
+        private Drawable mDrawable;
+        
+        @Implementation
+        @Override
+        public void invalidateSelf() {
+            Drawable.Callback callback = mDrawable.getCallback();
+            if (callback != null) {
+                callback.invalidateDrawable(mDrawable);
+            }
+        }
+    }
+    
+    /**
+     * <p>Platform velocity tracker keeps samples in fixed native buffers, while the one of Robolectric
+     * boxes every sample. This one estimates velocity from the first and the last sample of a gesture</p>
+     */
+    @Implements(VelocityTracker.class)
+    public static class ShadowFixedVelocityTracker {
+        private int mCount;
+        private long mFirstTime;
+        private float mFirstX;
+        private float mFirstY;
+        private long mLastTime;
+        private float mLastX;
+        private float mLastY;
+        private float mVelocityX;
+        private float mVelocityY;
+        
+        @Implementation
+        public void clear() {
+            mCount = 0;
+            mVelocityX = 0;
+            mVelocityY = 0;
+        }
+        
+        @Implementation
+        public void addMovement(MotionEvent event) {
+            if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+                clear();
+            }
+            if (mCount++ == 0) {
+                mFirstTime = event.getEventTime();
+                mFirstX = event.getX();
+                mFirstY = event.getY();
+            }
+            mLastTime = event.getEventTime();
+            mLastX = event.getX();
+            mLastY = event.getY();
+        }
+        
+        @Implementation
+        public void computeCurrentVelocity(int units) {
+            computeCurrentVelocity(units, Float.MAX_VALUE);
+        }
+        
+        @Implementation
+        public void computeCurrentVelocity(int units, float maxVelocity) {
+            long duration = mLastTime - mFirstTime;
+            if (mCount < 2 || duration == 0) {
+                mVelocityX = 0;
+                mVelocityY = 0;
+                return;
+            }
+            mVelocityX = Math.max(-maxVelocity, Math.min(maxVelocity, (mLastX - mFirstX) * units / duration));
+            mVelocityY = Math.max(-maxVelocity, Math.min(maxVelocity, (mLastY - mFirstY) * units / duration));
+        }
+        
+        @Implementation
+        public float getXVelocity() {
+            return mVelocityX;
+        }
+        
+        @Implementation
+        public float getYVelocity() {
+            return mVelocityY;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.mancj.slideup;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.shadows.ShadowMotionEvent;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * <p>Drags recorded with {@link GestureRecorder} must bring the slider to the same state when replayed</p>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27, shadows = GestureReplayTest.ShadowBatchedMotionEvent.class)
+public class GestureReplayTest {
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final int SLIDER_HEIGHT = 400;
+    private static final int MOVES = 3;
+    private static final int SAMPLES = 4;
+    private static final float DELTA = 0.001f;
+    
+    private FrameLayout mRoot;
+    private View mSlider;
+    private SlideUp mSlideUp;
+    private GestureReplayer.Result mResult;
+    private float mReleaseTranslation;
+    
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        mRoot = new FrameLayout(activity);
+        mSlider = new View(activity);
+        mRoot.addView(mSlider, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, SLIDER_HEIGHT,
+                Gravity.BOTTOM));
+        activity.setContentView(mRoot);
+        mSlideUp = new SlideUpBuilder(mSlider)
+                .withStartState(SlideUp.State.SHOWED)
+                .withStartGravity(Gravity.BOTTOM)
+                .withAnchors(0.5f)
+                .build();
+        mRoot.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mRoot.layout(0, 0, WIDTH, HEIGHT);
+        mSlider.getViewTreeObserver().dispatchOnGlobalLayout();
+        assertEquals(SLIDER_HEIGHT, mSlider.getHeight());
+    }
+    
+    @Test
+    public void replayReproducesRecordedDrag() {
+        byte[] trace = record();
+        float translation = mSlider.getTranslationY();
+        int anchor = mSlideUp.getCurrentAnchor();
+        boolean visible = mSlideUp.isVisible();
+        
+        mSlideUp.showImmediately();
+        GestureReplayer replayer = new GestureReplayer(trace);
+        assertEquals(MOVES + 2, replayer.getEventCount());
+        mResult = replayer.replay(mSlideUp);
+        
+        assertEquals(MOVES + 2, mResult.getEventCount());
+        // result is taken right after the last event, when the settle has just started
+        assertEquals(mReleaseTranslation, mResult.getTranslationY(), DELTA);
+        assertState(translation, anchor, visible);
+    }
+    
+    @Test
+    public void pacedReplayFinishes() {
+        byte[] trace = record();
+        float translation = mSlider.getTranslationY();
+        int anchor = mSlideUp.getCurrentAnchor();
+        boolean visible = mSlideUp.isVisible();
+        
+        mSlideUp.showImmediately();
+        GestureReplayer replayer = new GestureReplayer(trace);
+        replayer.replay(mSlideUp, 2, new GestureReplayer.Callback() {
+            @Override
+            public void onReplayFinished(GestureReplayer.Result result) {
+                mResult = result;
+            }
+        });
+        ShadowLooper.idleMainLooper(replayer.getDuration(), TimeUnit.MILLISECONDS);
+        
+        assertNotNull("Replay hasn't finished", mResult);
+        assertEquals(MOVES + 2, mResult.getEventCount());
+        assertState(translation, anchor, visible);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedTraceIsRejected() {
+        byte[] trace = record();
+        new GestureReplayer(Arrays.copyOf(trace, trace.length - 3));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void traceWithoutMagicIsRejected() {
+        byte[] trace = record();
+        trace[0] ^= 1;
+        new GestureReplayer(trace);
+    }
+    
+    /**
+     * <p>Drags the slider half way down with batched moves and lets it settle</p>
+     *
+     * @return recorded trace
+     */
+    private byte[] record() {
+        GestureRecorder recorder = new GestureRecorder();
+        mSlideUp.setGestureRecorder(recorder);
+        long downTime = SystemClock.uptimeMillis();
+        float y = 10;
+        dispatch(MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, WIDTH / 2, y, 0));
+        long time = downTime;
+        for (int i = 0; i < MOVES; i++) {
+            time += 8;
+            y += 10;
+            MotionEvent move = MotionEvent.obtain(downTime, time, MotionEvent.ACTION_MOVE, WIDTH / 2, y, 0);
+            for (int j = 1; j < SAMPLES; j++) {
+                time += 8;
+                y += 10;
+                move.addBatch(time, WIDTH / 2, y, 1, 1, 0);
+            }
+            assertEquals(SAMPLES - 1, move.getHistorySize());
+            dispatch(move);
+        }
+        time += 8;
+        dispatch(MotionEvent.obtain(downTime, time, MotionEvent.ACTION_UP, WIDTH / 2, y, 0));
+        mReleaseTranslation = mSlider.getTranslationY();
+        finishSettle();
+        mSlideUp.setGestureRecorder(null);
+        assertEquals(MOVES + 2, recorder.getEventCount());
+        return recorder.toByteArray();
+    }
+    
+    private void dispatch(MotionEvent event) {
+        mSlideUp.onTouch(mSlider, event);
+        event.recycle();
+    }
+    
+    /**
+     * <p>Ends the settle at its target, frames of Robolectric animators don't follow its clock</p>
+     */
+    private void finishSettle() {
+        AnimationProcessor processor = ReflectionHelpers.getField(mSlideUp, "mAnimationProcessor");
+        processor.endAnimation();
+        assertFalse("Slider is still settling", mSlideUp.isAnimationRunning());
+    }
+    
+    private void assertState(float translation, int anchor, boolean visible) {
+        finishSettle();
+        assertEquals(translation, mSlider.getTranslationY(), DELTA);
+        assertEquals(anchor, mSlideUp.getCurrentAnchor());
+        assertEquals(visible, mSlideUp.isVisible());
+    }
+    
+    /**
+     * <p>Robolectric drops samples added to a move. This one keeps them as history of the event,
+     * like the platform does</p>
+     */
+    @Implements(MotionEvent.class)
+    public static class ShadowBatchedMotionEvent extends ShadowMotionEvent {
+        private long[] mHistoryTimes = new long[0];
+        private float[] mHistoryX = new float[0];
+        private float[] mHistoryY = new float[0];
+        
+        @Implementation
+        public void addBatch(long eventTime, float x, float y, float pressure, float size, int metaState) {
+            int count = mHistoryTimes.length;
+            mHistoryTimes = Arrays.copyOf(mHistoryTimes, count + 1);
+            mHistoryX = Arrays.copyOf(mHistoryX, count + 1);
+            mHistoryY = Arrays.copyOf(mHistoryY, count + 1);
+            mHistoryTimes[count] = getEventTime();
+            mHistoryX[count] = getX();
+            mHistoryY[count] = getY();
+            setLocation(x, y);
+            ReflectionHelpers.setField(ShadowMotionEvent.class, this, "eventTime", eventTime);
+        }
+        
+        @Implementation
+        public int getHistorySize() {
+            return mHistoryTimes.length;
+        }
+        
+        @Implementation
+        public long getHistoricalEventTime(int pos) {
+            return mHistoryTimes[pos];
+        }
+        
+        @Implementation
+        public float getHistoricalX(int pos) {
+            return mHistoryX[pos];
+        }
+        
+        @Implementation
+        public float getHistoricalY(int pos) {
+            return mHistoryY[pos];
+        }
+    }
+}